@@ -14,8 +14,11 @@ public class SpringDocConfig {
     public OpenAPI openAPI() {
         return new OpenAPI()
                 .addSecurityItem(new SecurityRequirement().addList("basicAuth"))
+                .addSecurityItem(new SecurityRequirement().addList("bearerAuth"))
                 .components(new Components().addSecuritySchemes(
                 "basicAuth", new SecurityScheme().name("basicAuth").type(SecurityScheme.Type.HTTP).scheme("basic")
+        ).addSecuritySchemes(
+                "bearerAuth", new SecurityScheme().name("bearerAuth").type(SecurityScheme.Type.HTTP).scheme("bearer")
         ));
     }
 }
@@ -0,0 +1,38 @@
+package com.mobiauto.controller;
+
+
+import com.mobiauto.dto.LoginDto;
+import com.mobiauto.service.AutenticacaoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirements;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(value = "api/v1/auth", produces = {"application/json"})
+@RequiredArgsConstructor
+@Tag(name = "Autenticação")
+@SecurityRequirements
+@ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Operação executada com sucesso."),
+        @ApiResponse(responseCode = "401", description = "E-mail ou senha incorretos.")
+})
+public class AutenticacaoController {
+
+    private final AutenticacaoService service;
+
+    @Operation(summary = "Valida e-mail e senha e emite um token de acesso de curta duração para uso no header 'Authorization: Bearer'.")
+    @PostMapping("/login")
+    public ResponseEntity<Object> login(@RequestBody @Validated LoginDto loginDto) {
+        return ResponseEntity.ok(service.login(loginDto));
+    }
+
+}
@@ -2,22 +2,40 @@ package com.mobiauto.controller;
 
 
 import com.mobiauto.config.NivelAcessoConfig;
+import com.mobiauto.dto.AlteracoesDto;
 import com.mobiauto.dto.CadastroOportunidadeDto;
+import com.mobiauto.dto.EstatisticasRevendaDto;
+import com.mobiauto.dto.FiltroOportunidadeDto;
+import com.mobiauto.dto.OportunidadeResumoDto;
+import com.mobiauto.dto.SerieDiariaDto;
+import com.mobiauto.enumerated.FormatoArquivo;
 import com.mobiauto.model.Oportunidade;
 import com.mobiauto.security.UserPrincipal;
 import com.mobiauto.service.OportunidadeService;
 import com.mobiauto.service.RevendaService;
 import com.mobiauto.service.UsuarioService;
+import com.mobiauto.service.versao.VersoesRevenda;
+import com.mobiauto.util.RespostaCondicionalUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping(value = "api/v1/oportunidades", produces = {"application/json"})
@@ -30,30 +48,96 @@ import org.springframework.web.bind.annotation.*;
         @ApiResponse(responseCode = "404", description = "A oportunidade não existe.")})
 public class OportunidadeController {
 
+    private static final String TEXT_CSV = "text/csv";
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
     private final OportunidadeService service;
     private final UsuarioService usuarioService;
 
     private final RevendaService revendaService;
 
-    @Operation(summary = "Busca todas as oportunidades cadastradas atualmente.", description = NivelAcessoConfig.NIVEL_ADMINISTRADOR)
+    private final VersoesRevenda versoesRevenda;
+
+    @Operation(summary = "Busca as oportunidades cadastradas atualmente, paginadas por cursor.", description = NivelAcessoConfig.NIVEL_ADMINISTRADOR)
     @PreAuthorize("hasRole('" + NivelAcessoConfig.NIVEL_ADMINISTRADOR + "')")
     @GetMapping
-    public ResponseEntity<Object> buscarOportunidades() {
-        return ResponseEntity.ok(service.findAll());
+    public ResponseEntity<Object> buscarOportunidades(@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(service.findAll(cursor, limite));
     }
 
-    @Operation(summary = "Busca todas as oportunidades associadas à revendedora do usuário autenticado.", description = NivelAcessoConfig.NIVEL_ASSISTENTE)
+    @Operation(summary = "Busca as oportunidades associadas à revendedora do usuário autenticado, paginadas por cursor.", description = NivelAcessoConfig.NIVEL_ASSISTENTE)
     @PreAuthorize("hasRole('" + NivelAcessoConfig.NIVEL_ASSISTENTE + "')")
     @GetMapping("/revenda")
-    public ResponseEntity<Object> buscarOportunidadesDaRevenda(@AuthenticationPrincipal UserPrincipal userPrincipal) {
-        return  ResponseEntity.ok(service.buscarOportunidadesDaRevenda(userPrincipal));
+    public ResponseEntity<Object> buscarOportunidadesDaRevenda(@AuthenticationPrincipal UserPrincipal userPrincipal, @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limite, WebRequest request) {
+        return RespostaCondicionalUtil.responder(versoesRevenda.etag(userPrincipal.getRevendaId()), request,
+                () -> service.buscarOportunidadesDaRevenda(userPrincipal, cursor, limite));
+    }
+
+    @Operation(summary = "Pesquisa as oportunidades da revendedora do usuário autenticado por status, veículo, períodos e usuário associado, paginadas por cursor.", description = NivelAcessoConfig.NIVEL_ASSISTENTE)
+    @PreAuthorize("hasRole('" + NivelAcessoConfig.NIVEL_ASSISTENTE + "')")
+    @GetMapping("/revenda/pesquisa")
+    public ResponseEntity<Object> pesquisarOportunidadesDaRevenda(@AuthenticationPrincipal UserPrincipal userPrincipal, @ModelAttribute FiltroOportunidadeDto filtro, @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(service.pesquisarOportunidadesDaRevenda(userPrincipal, filtro, cursor, limite));
+    }
+
+    @Operation(summary = "Busca textual (nome, e-mail e telefone do cliente, marca, modelo e versão do veículo) nas oportunidades da revendedora do usuário autenticado, ordenada por relevância.", description = NivelAcessoConfig.NIVEL_ASSISTENTE)
+    @PreAuthorize("hasRole('" + NivelAcessoConfig.NIVEL_ASSISTENTE + "')")
+    @GetMapping("/revenda/busca")
+    public ResponseEntity<Object> buscarTextoNaRevenda(@AuthenticationPrincipal UserPrincipal userPrincipal, @RequestParam String q, @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(service.buscarTextoNaRevenda(userPrincipal, q, limite));
+    }
+
+    @Operation(summary = "Oportunidades da revendedora do usuário autenticado alteradas e excluídas depois do cursor 'desde', em ordem de alteração. Sem 'desde', todas as oportunidades; o 'cursor' da resposta é o 'desde' da próxima chamada.", description = NivelAcessoConfig.NIVEL_ASSISTENTE)
+    @PreAuthorize("hasRole('" + NivelAcessoConfig.NIVEL_ASSISTENTE + "')")
+    @GetMapping("/revenda/alteracoes")
+    public ResponseEntity<AlteracoesDto> buscarAlteracoesDaRevenda(@AuthenticationPrincipal UserPrincipal userPrincipal, @RequestParam(required = false) String desde, @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(service.buscarAlteracoesDaRevenda(userPrincipal, desde, limite));
+    }
+
+    @Operation(summary = "Stream SSE das alterações das oportunidades da revendedora do usuário autenticado, enviadas depois do commit: criada, atribuida, status-alterado, editada, excluida e recarregar. O primeiro evento é sempre recarregar; ele também substitui os demais quando há muitas alterações de uma vez e para as alterações feitas em outra instância da aplicação, que só enviam eventos detalhados aos inscritos nela.", description = NivelAcessoConfig.NIVEL_ASSISTENTE)
+    @PreAuthorize("hasRole('" + NivelAcessoConfig.NIVEL_ASSISTENTE + "')")
+    @GetMapping(value = "/revenda/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter acompanharOportunidadesDaRevenda(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return service.acompanharOportunidadesDaRevenda(userPrincipal);
+    }
+
+    @Operation(summary = "Estatísticas das oportunidades da revendedora do usuário autenticado: quantidade por status, taxa de conversão e média de dias até a conclusão, no total e por usuário associado.", description = NivelAcessoConfig.NIVEL_GERENTE)
+    @PreAuthorize("hasRole('" + NivelAcessoConfig.NIVEL_GERENTE + "')")
+    @GetMapping("/revenda/estatisticas")
+    public ResponseEntity<EstatisticasRevendaDto> buscarEstatisticasDaRevenda(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return ResponseEntity.ok(service.buscarEstatisticasDaRevenda(userPrincipal));
+    }
+
+    @Operation(summary = "Estatísticas das oportunidades de uma revendedora pelo seu id.", description = NivelAcessoConfig.NIVEL_ADMINISTRADOR)
+    @PreAuthorize("hasRole('" + NivelAcessoConfig.NIVEL_ADMINISTRADOR + "')")
+    @GetMapping("/estatisticas/{idRevenda}")
+    public ResponseEntity<EstatisticasRevendaDto> buscarEstatisticas(@PathVariable Long idRevenda) {
+        return ResponseEntity.ok(service.buscarEstatisticas(idRevenda));
+    }
+
+    @Operation(summary = "Série diária de oportunidades recebidas e concluídas da revendedora do usuário autenticado, de 'de' a 'ate' (padrão: os últimos 365 dias, no máximo 731).", description = NivelAcessoConfig.NIVEL_GERENTE)
+    @PreAuthorize("hasRole('" + NivelAcessoConfig.NIVEL_GERENTE + "')")
+    @GetMapping("/revenda/serie")
+    public ResponseEntity<SerieDiariaDto> buscarSerieDiariaDaRevenda(@AuthenticationPrincipal UserPrincipal userPrincipal,
+                                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+                                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+        return ResponseEntity.ok(service.buscarSerieDiariaDaRevenda(userPrincipal, de, ate));
+    }
+
+    @Operation(summary = "Série diária de oportunidades recebidas e concluídas de uma revendedora pelo seu id.", description = NivelAcessoConfig.NIVEL_ADMINISTRADOR)
+    @PreAuthorize("hasRole('" + NivelAcessoConfig.NIVEL_ADMINISTRADOR + "')")
+    @GetMapping("/serie/{idRevenda}")
+    public ResponseEntity<SerieDiariaDto> buscarSerieDiaria(@PathVariable Long idRevenda,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+        return ResponseEntity.ok(service.buscarSerieDiaria(idRevenda, de, ate));
     }
 
     @Operation(summary = "Busca uma oportunidade pelo seu id.", description = NivelAcessoConfig.NIVEL_ADMINISTRADOR)
     @PreAuthorize("hasRole('" + NivelAcessoConfig.NIVEL_ADMINISTRADOR + "')")
     @GetMapping("/{id}")
     public ResponseEntity<Object> buscarOportunidadePorId(@PathVariable Long id) {
-        return ResponseEntity.ok(service.findById(id));
+        return ResponseEntity.ok(OportunidadeResumoDto.de(service.findById(id)));
     }
 
     @Operation(summary = "Cadastra uma nova oportunidade.", description = NivelAcessoConfig.NIVEL_ADMINISTRADOR)
@@ -63,6 +147,32 @@ public class OportunidadeController {
         return ResponseEntity.ok(service.save(cadastroOportunidadeDto));
     }
 
+    @Operation(summary = "Cadastra um lote de oportunidades em uma única transação, com inserções agrupadas em lotes JDBC.", description = NivelAcessoConfig.NIVEL_ADMINISTRADOR)
+    @PreAuthorize("hasRole('" + NivelAcessoConfig.NIVEL_ADMINISTRADOR + "')")
+    @PostMapping("/cadastrar/lote")
+    public ResponseEntity<Object> cadastrarOportunidadesEmLote(@RequestBody @Validated List<CadastroOportunidadeDto> cadastrosOportunidades) {
+        return ResponseEntity.ok(service.saveAll(cadastrosOportunidades));
+    }
+
+    @Operation(summary = "Importa oportunidades de um arquivo CSV (com cabeçalho) ou NDJSON lido de forma incremental, gravando em lotes e retornando os erros por linha.", description = NivelAcessoConfig.NIVEL_ADMINISTRADOR)
+    @PreAuthorize("hasRole('" + NivelAcessoConfig.NIVEL_ADMINISTRADOR + "')")
+    @PostMapping(value = "/importar", consumes = {TEXT_CSV, APPLICATION_NDJSON})
+    public ResponseEntity<Object> importarOportunidades(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream conteudo) {
+        var formato = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(TEXT_CSV)) ? FormatoArquivo.CSV : FormatoArquivo.NDJSON;
+        return ResponseEntity.ok(service.importar(conteudo, formato));
+    }
+
+    @Operation(summary = "Exporta todas as oportunidades em CSV ou NDJSON, escritas à medida que são lidas do banco.", description = NivelAcessoConfig.NIVEL_ADMINISTRADOR)
+    @PreAuthorize("hasRole('" + NivelAcessoConfig.NIVEL_ADMINISTRADOR + "')")
+    @GetMapping(value = "/exportar", produces = {TEXT_CSV, APPLICATION_NDJSON})
+    public ResponseEntity<StreamingResponseBody> exportarOportunidades(@RequestParam(defaultValue = "NDJSON") FormatoArquivo formato) {
+        var csv = formato == FormatoArquivo.CSV;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType((csv ? TEXT_CSV : APPLICATION_NDJSON) + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"oportunidades." + (csv ? "csv" : "ndjson") + "\"")
+                .body(saida -> service.exportar(saida, formato));
+    }
+
     @Operation(summary = "Cadastra uma oportunidade na mesma revendedora para um usuário autenticado, com distribuição ao assistente mais ocioso no momento.", description = NivelAcessoConfig.NIVEL_ASSISTENTE)
     @PreAuthorize("hasRole('" + NivelAcessoConfig.NIVEL_ASSISTENTE + "')")
     @PostMapping("/atender")
@@ -70,6 +180,14 @@ public class OportunidadeController {
         return ResponseEntity.ok(service.atender(cadastroOportunidadeDto, userPrincipal));
     }
 
+    @Operation(summary = "Recebe uma oportunidade na mesma revendedora do usuário autenticado e responde 202 com o id; o assistente mais ocioso é atribuído em segundo plano.", description = NivelAcessoConfig.NIVEL_ASSISTENTE)
+    @ApiResponse(responseCode = "202", description = "Oportunidade gravada e aguardando atribuição.")
+    @PreAuthorize("hasRole('" + NivelAcessoConfig.NIVEL_ASSISTENTE + "')")
+    @PostMapping("/atender/fila")
+    public ResponseEntity<OportunidadeResumoDto> receberParaAtendimento(@RequestBody @Validated CadastroOportunidadeDto cadastroOportunidadeDto, @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return ResponseEntity.accepted().body(OportunidadeResumoDto.de(service.receberParaAtendimento(cadastroOportunidadeDto, userPrincipal)));
+    }
+
     @Operation(summary = "Edita uma oportunidade pelo seu id.", description = NivelAcessoConfig.NIVEL_ADMINISTRADOR)
     @PreAuthorize("hasRole('" + NivelAcessoConfig.NIVEL_ADMINISTRADOR + "')")
     @PutMapping("/editar/{id}")
@@ -30,10 +30,10 @@ public class RevendaController {
 
     private final RevendaService service;
 
-    @Operation(summary = "Busca todas as revendedoras que estão cadastradas atualmente.", description = NivelAcessoConfig.NIVEL_ADMINISTRADOR)
+    @Operation(summary = "Busca as revendedoras que estão cadastradas atualmente, paginadas por cursor.", description = NivelAcessoConfig.NIVEL_ADMINISTRADOR)
     @GetMapping
-    public ResponseEntity<Object> buscarRevendas() {
-        return ResponseEntity.ok(service.findAll());
+    public ResponseEntity<Object> buscarRevendas(@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(service.findAll(cursor, limite));
     }
 
     @Operation(summary = "Busca uma revendedora pelo id.", description = NivelAcessoConfig.NIVEL_ADMINISTRADOR)
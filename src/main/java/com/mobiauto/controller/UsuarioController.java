@@ -2,9 +2,12 @@ package com.mobiauto.controller;
 
 
 import com.mobiauto.config.NivelAcessoConfig;
+import com.mobiauto.dto.UsuarioResumoDto;
 import com.mobiauto.model.Usuario;
 import com.mobiauto.security.UserPrincipal;
 import com.mobiauto.service.UsuarioService;
+import com.mobiauto.service.versao.VersoesRevenda;
+import com.mobiauto.util.RespostaCondicionalUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -15,6 +18,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping(value = "api/v1/usuarios", produces = {"application/json"})
@@ -31,25 +35,28 @@ public class UsuarioController {
 
     private final UsuarioService service;
 
-    @Operation(summary = "Busca todos os usuários cadastrados.", description = NivelAcessoConfig.NIVEL_ADMINISTRADOR)
+    private final VersoesRevenda versoesRevenda;
+
+    @Operation(summary = "Busca os usuários cadastrados, paginados por cursor.", description = NivelAcessoConfig.NIVEL_ADMINISTRADOR)
     @PreAuthorize("hasRole('" + NivelAcessoConfig.NIVEL_ADMINISTRADOR + "')")
     @GetMapping
-    public ResponseEntity<Object> buscarUsuarios() {
-        return ResponseEntity.ok(service.findAll());
+    public ResponseEntity<Object> buscarUsuarios(@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(service.findAll(cursor, limite));
     }
 
-    @Operation(summary = "Busca todos os usuários cadastrados na revendedora do usuário autenticado.", description = NivelAcessoConfig.NIVEL_GERENTE)
+    @Operation(summary = "Busca os usuários cadastrados na revendedora do usuário autenticado, paginados por cursor.", description = NivelAcessoConfig.NIVEL_GERENTE)
     @PreAuthorize("hasRole('" + NivelAcessoConfig.NIVEL_GERENTE + "')")
     @GetMapping("/revenda")
-    public ResponseEntity<Object> buscarUsuariosDaRevenda(@AuthenticationPrincipal UserPrincipal userPrincipal) {
-        return ResponseEntity.ok(service.buscarUsuariosDaRevenda(userPrincipal));
+    public ResponseEntity<Object> buscarUsuariosDaRevenda(@AuthenticationPrincipal UserPrincipal userPrincipal, @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limite, WebRequest request) {
+        return RespostaCondicionalUtil.responder(versoesRevenda.etag(userPrincipal.getRevendaId()), request,
+                () -> service.buscarUsuariosDaRevenda(userPrincipal, cursor, limite));
     }
 
     @Operation(summary = "Busca um usuário pelo seu id.", description = NivelAcessoConfig.NIVEL_ADMINISTRADOR)
     @PreAuthorize("hasRole('" + NivelAcessoConfig.NIVEL_ADMINISTRADOR + "')")
     @GetMapping("/{id}")
     public ResponseEntity<Object> buscarUsuarioPorId(@PathVariable Long id) {
-        return ResponseEntity.ok(service.findById(id));
+        return ResponseEntity.ok(UsuarioResumoDto.de(service.findById(id)));
     }
 
     @Operation(summary = "Cadastrar um novo usuário.", description = NivelAcessoConfig.NIVEL_ADMINISTRADOR)
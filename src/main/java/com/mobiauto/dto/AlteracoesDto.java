@@ -0,0 +1,23 @@
+package com.mobiauto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+public class AlteracoesDto {
+
+    private List<OportunidadeResumoDto> alteradas;
+
+    private List<Long> excluidas;
+
+    private String cursor;
+
+    private Boolean temMais;
+}
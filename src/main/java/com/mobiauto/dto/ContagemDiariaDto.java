@@ -0,0 +1,27 @@
+package com.mobiauto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+public class ContagemDiariaDto {
+
+    private LocalDate dia;
+
+    /**
+     * Oportunidades que entraram na revenda no dia.
+     */
+    private Long recebidas;
+
+    /**
+     * Oportunidades concluídas no dia (pela data de conclusão).
+     */
+    private Long concluidas;
+}
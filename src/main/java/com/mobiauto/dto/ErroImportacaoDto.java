@@ -0,0 +1,17 @@
+package com.mobiauto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+public class ErroImportacaoDto {
+
+    private Long linha;
+
+    private String mensagem;
+}
@@ -0,0 +1,51 @@
+package com.mobiauto.dto;
+
+import com.mobiauto.model.EstatisticaOportunidades;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+public class EstatisticasDto {
+
+    /**
+     * Usuário associado às oportunidades contadas; null para o total da revenda e para as oportunidades sem usuário.
+     */
+    private Long usuarioAssociadoId;
+
+    private Long novas;
+
+    private Long emAtendimento;
+
+    private Long concluidas;
+
+    private Long total;
+
+    /**
+     * Concluídas sobre o total; null se não houver oportunidades.
+     */
+    private Double taxaConversao;
+
+    /**
+     * Média de dias entre a data de atribuição e a de conclusão das concluídas; null se nenhuma tiver as duas datas.
+     */
+    private Double mediaDiasAteConclusao;
+
+    public static EstatisticasDto de(Long usuarioAssociadoId, long novas, long emAtendimento, long concluidas,
+                                     long concluidasComDatas, long somaDiasConclusao) {
+        var total = novas + emAtendimento + concluidas;
+        return new EstatisticasDto(usuarioAssociadoId, novas, emAtendimento, concluidas, total,
+                total > 0 ? (double) concluidas / total : null,
+                concluidasComDatas > 0 ? (double) somaDiasConclusao / concluidasComDatas : null);
+    }
+
+    public static EstatisticasDto de(EstatisticaOportunidades estatistica) {
+        return de(estatistica.getUsuarioId() != EstatisticaOportunidades.SEM_USUARIO ? estatistica.getUsuarioId() : null,
+                estatistica.getNovas(), estatistica.getEmAtendimento(), estatistica.getConcluidas(),
+                estatistica.getConcluidasComDatas(), estatistica.getSomaDiasConclusao());
+    }
+}
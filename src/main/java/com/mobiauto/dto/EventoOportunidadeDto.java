@@ -0,0 +1,28 @@
+package com.mobiauto.dto;
+
+import com.mobiauto.enumerated.Status;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Dados de um evento do stream /oportunidades/revenda/eventos; o tipo do evento vai no campo "event" do SSE.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+public class EventoOportunidadeDto {
+
+    private Long id;
+
+    /**
+     * Situação depois da alteração; na exclusão, a última situação da oportunidade.
+     */
+    private Status status;
+
+    private Long lojaAssociadaId;
+
+    private Long usuarioAssociadoId;
+}
@@ -0,0 +1,43 @@
+package com.mobiauto.dto;
+
+import com.mobiauto.enumerated.Status;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroOportunidadeDto {
+
+    private Status status;
+
+    private String marcaVeiculo;
+
+    private String modeloVeiculo;
+
+    private Integer anoVeiculoDe;
+
+    private Integer anoVeiculoAte;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dataAtribuicaoDe;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dataAtribuicaoAte;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dataConclusaoDe;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dataConclusaoAte;
+
+    private Long usuarioAssociadoId;
+}
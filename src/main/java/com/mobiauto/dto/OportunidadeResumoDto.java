@@ -0,0 +1,68 @@
+package com.mobiauto.dto;
+
+import com.mobiauto.enumerated.Status;
+import com.mobiauto.model.Oportunidade;
+import com.mobiauto.model.Revenda;
+import com.mobiauto.model.Usuario;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OportunidadeResumoDto {
+
+    private Long id;
+
+    private Status status;
+
+    private String nomeCliente;
+
+    private String emailCliente;
+
+    private String telefoneCliente;
+
+    private String marcaVeiculo;
+
+    private String modeloVeiculo;
+
+    private String versaoVeiculo;
+
+    private Integer anoVeiculo;
+
+    private LocalDate dataAtribuicao;
+
+    private LocalDate dataConclusao;
+
+    private String motivoConclusao;
+
+    private Long lojaAssociadaId;
+
+    private Long usuarioAssociadoId;
+
+    public static OportunidadeResumoDto de(Oportunidade oportunidade) {
+        return new OportunidadeResumoDto(
+                oportunidade.getId(),
+                oportunidade.getStatus(),
+                oportunidade.getNomeCliente(),
+                oportunidade.getEmailCliente(),
+                oportunidade.getTelefoneCliente(),
+                oportunidade.getMarcaVeiculo(),
+                oportunidade.getModeloVeiculo(),
+                oportunidade.getVersaoVeiculo(),
+                oportunidade.getAnoVeiculo(),
+                oportunidade.getDataAtribuicao(),
+                oportunidade.getDataConclusao(),
+                oportunidade.getMotivoConclusao(),
+                Optional.ofNullable(oportunidade.getLojaAssociada()).map(Revenda::getId).orElse(null),
+                Optional.ofNullable(oportunidade.getUsuarioAssociado()).map(Usuario::getId).orElse(null));
+    }
+}
@@ -0,0 +1,21 @@
+package com.mobiauto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+public class PaginaDto<T> {
+
+    private List<T> itens;
+
+    private Integer limite;
+
+    private String proximo;
+}
@@ -0,0 +1,25 @@
+package com.mobiauto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+public class ResultadoImportacaoDto {
+
+    private Long linhasProcessadas;
+
+    private Long importadas;
+
+    private Long comErro;
+
+    private List<ErroImportacaoDto> erros;
+
+    private Boolean errosTruncados;
+}
@@ -0,0 +1,27 @@
+package com.mobiauto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+public class SerieDiariaDto {
+
+    private Long lojaAssociadaId;
+
+    private LocalDate de;
+
+    private LocalDate ate;
+
+    /**
+     * Um item por dia do período, inclusive os dias sem oportunidades.
+     */
+    private List<ContagemDiariaDto> dias;
+}
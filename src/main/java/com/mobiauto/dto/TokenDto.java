@@ -0,0 +1,19 @@
+package com.mobiauto.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Builder
+public class TokenDto {
+
+    private String token;
+
+    private String tipo;
+
+    private Instant expiraEm;
+}
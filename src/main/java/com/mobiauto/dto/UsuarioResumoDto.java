@@ -0,0 +1,43 @@
+package com.mobiauto.dto;
+
+import com.mobiauto.enumerated.Cargo;
+import com.mobiauto.model.Revenda;
+import com.mobiauto.model.Usuario;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+import java.util.Optional;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsuarioResumoDto {
+
+    private Long id;
+
+    private String nome;
+
+    private String email;
+
+    private Cargo cargo;
+
+    private Long lojaAssociadaId;
+
+    private Date horarioUltimaOportunidade;
+
+    public static UsuarioResumoDto de(Usuario usuario) {
+        return new UsuarioResumoDto(
+                usuario.getId(),
+                usuario.getNome(),
+                usuario.getEmail(),
+                usuario.getCargo(),
+                Optional.ofNullable(usuario.getLojaAssociada()).map(Revenda::getId).orElse(null),
+                usuario.getHorarioUltimaOportunidade());
+    }
+}
@@ -0,0 +1,5 @@
+package com.mobiauto.enumerated;
+
+public enum FormatoArquivo {
+    CSV, NDJSON
+}
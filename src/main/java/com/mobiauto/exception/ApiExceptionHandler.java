@@ -18,4 +18,9 @@ public class ApiExceptionHandler {
         return ResponseEntity.status( HttpStatus.BAD_REQUEST).body(ex.getMessage());
     }
 
+    @ExceptionHandler(AutenticacaoException.class)
+    public ResponseEntity<?> handleAutenticacao(AutenticacaoException ex) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ex.getMessage());
+    }
+
 }
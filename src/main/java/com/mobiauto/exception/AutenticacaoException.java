@@ -0,0 +1,8 @@
+package com.mobiauto.exception;
+
+public class AutenticacaoException extends RuntimeException {
+
+    public AutenticacaoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,39 @@
+package com.mobiauto.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Oportunidades recebidas (pela data de cadastro) e concluídas (pela data de conclusão) de uma revenda em um dia,
+ * mantidas junto com {@link EstatisticaOportunidades}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "contagens_diarias_oportunidades", uniqueConstraints =
+        @UniqueConstraint(name = "uk_contagens_diarias_oportunidades_revenda_dia", columnNames = {"revenda_id", "dia"}))
+public class ContagemDiariaOportunidades {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contagens_diarias_oportunidades_seq")
+    @SequenceGenerator(name = "contagens_diarias_oportunidades_seq", sequenceName = "contagens_diarias_oportunidades_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "revenda_id", nullable = false)
+    private Long revendaId;
+
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    @Column(nullable = false)
+    private long recebidas;
+
+    @Column(nullable = false)
+    private long concluidas;
+
+}
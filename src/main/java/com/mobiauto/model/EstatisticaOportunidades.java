@@ -0,0 +1,54 @@
+package com.mobiauto.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Totais das oportunidades de uma revenda por usuário associado, mantidos a cada escrita de oportunidade
+ * (EstatisticasOportunidades) e recalculados periodicamente (ReconstrucaoEstatisticas).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "estatisticas_oportunidades", uniqueConstraints =
+        @UniqueConstraint(name = "uk_estatisticas_oportunidades_revenda_usuario", columnNames = {"revenda_id", "usuario_id"}))
+public class EstatisticaOportunidades {
+
+    /**
+     * Valor de usuarioId para as oportunidades sem usuário associado.
+     */
+    public static final long SEM_USUARIO = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "estatisticas_oportunidades_seq")
+    @SequenceGenerator(name = "estatisticas_oportunidades_seq", sequenceName = "estatisticas_oportunidades_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "revenda_id", nullable = false)
+    private Long revendaId;
+
+    @Column(name = "usuario_id", nullable = false)
+    private Long usuarioId;
+
+    @Column(nullable = false)
+    private long novas;
+
+    @Column(name = "em_atendimento", nullable = false)
+    private long emAtendimento;
+
+    @Column(nullable = false)
+    private long concluidas;
+
+    /**
+     * Concluídas com data de atribuição e de conclusão, base da média de dias até a conclusão.
+     */
+    @Column(name = "concluidas_com_datas", nullable = false)
+    private long concluidasComDatas;
+
+    @Column(name = "soma_dias_conclusao", nullable = false)
+    private long somaDiasConclusao;
+
+}
@@ -1,8 +1,11 @@
 package com.mobiauto.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.mobiauto.enumerated.Status;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 
@@ -12,11 +15,20 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "oportunidades")
+@Table(name = "oportunidades", indexes = {
+        @Index(name = "idx_oportunidades_loja_associada_id", columnList = "loja_associada_id, id"),
+        @Index(name = "idx_oportunidades_loja_status_atribuicao", columnList = "loja_associada_id, status, data_atribuicao"),
+        @Index(name = "idx_oportunidades_loja_usuario_associado", columnList = "loja_associada_id, usuario_associado_id"),
+        @Index(name = "idx_oportunidades_loja_versao_alteracao", columnList = "loja_associada_id, versao_alteracao, id")
+})
+@NamedEntityGraph(name = "Oportunidade.edicao",
+        attributeNodes = {@NamedAttributeNode("lojaAssociada"), @NamedAttributeNode(value = "usuarioAssociado", subgraph = "usuarioAssociado")},
+        subgraphs = @NamedSubgraph(name = "usuarioAssociado", attributeNodes = @NamedAttributeNode("roles")))
 public class Oportunidade {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "oportunidades_seq")
+    @SequenceGenerator(name = "oportunidades_seq", sequenceName = "oportunidades_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -46,16 +58,40 @@ public class Oportunidade {
     @Column(name = "data_atribuicao")
     private LocalDate dataAtribuicao;
 
+    /**
+     * Dia da entrada da oportunidade (o dia do cadastro, ou a data de atribuição informada, se anterior), base das contagens diárias.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "data_cadastro")
+    private LocalDate dataCadastro;
+
     @Column(name = "data_conclusao")
     private LocalDate dataConclusao;
 
     @Column(name = "motivo_conclusao")
     private String motivoConclusao;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     private Revenda lojaAssociada;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     private Usuario usuarioAssociado;
 
+    /**
+     * Recebida pela fila de atendimento e ainda aguardando a atribuição de um assistente (FilaAtendimento).
+     */
+    @Builder.Default
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "atribuicao_pendente")
+    private Boolean atribuicaoPendente = false;
+
+    /**
+     * Versão de alteração da revenda na última escrita da oportunidade, base da sincronização incremental
+     * (/revenda/alteracoes). Gravada somente por AlteracoesOportunidades, antes do commit.
+     */
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(name = "versao_alteracao", nullable = false, insertable = false, updatable = false)
+    private Long versaoAlteracao;
+
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.mobiauto.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Registro de que a oportunidade deixou a revenda (excluída ou transferida para outra revenda), informado na
+ * sincronização incremental (/revenda/alteracoes). Removido se a oportunidade voltar para a revenda.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "oportunidades_excluidas",
+        uniqueConstraints = @UniqueConstraint(name = "uk_oportunidades_excluidas_revenda_oportunidade", columnNames = {"revenda_id", "oportunidade_id"}),
+        indexes = @Index(name = "idx_oportunidades_excluidas_revenda_versao", columnList = "revenda_id, versao_alteracao, oportunidade_id"))
+public class OportunidadeExcluida {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "oportunidades_excluidas_seq")
+    @SequenceGenerator(name = "oportunidades_excluidas_seq", sequenceName = "oportunidades_excluidas_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "revenda_id", nullable = false)
+    private Long revendaId;
+
+    @Column(name = "oportunidade_id", nullable = false)
+    private Long oportunidadeId;
+
+    @Column(name = "versao_alteracao", nullable = false)
+    private Long versaoAlteracao;
+
+}
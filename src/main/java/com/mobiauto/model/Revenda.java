@@ -1,7 +1,10 @@
 package com.mobiauto.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Getter
 @Setter
@@ -10,10 +13,12 @@ import lombok.*;
 @Builder
 @Entity
 @Table(name = "revendas")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Revenda {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "revendas_seq")
+    @SequenceGenerator(name = "revendas_seq", sequenceName = "revendas_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -22,4 +27,13 @@ public class Revenda {
     @Column(name = "nome_social", nullable = false)
     private String nomeSocial;
 
+    /**
+     * Última versão de alteração atribuída às oportunidades da revenda (AlteracoesOportunidades). Gravada somente por
+     * UPDATE relativo, nunca pela entidade, para que a edição da revenda não sobrescreva um incremento concorrente.
+     */
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(name = "versao_alteracoes", nullable = false, insertable = false, updatable = false)
+    private Long versaoAlteracoes;
+
 }
\ No newline at end of file
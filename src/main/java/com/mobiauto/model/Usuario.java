@@ -1,5 +1,7 @@
 package com.mobiauto.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.mobiauto.enumerated.Cargo;
 import jakarta.persistence.*;
 import lombok.*;
@@ -13,11 +15,17 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "usuarios")
+@Table(name = "usuarios", indexes = @Index(name = "idx_usuarios_loja_associada_id", columnList = "loja_associada_id, id"))
+@NamedEntityGraphs({
+        @NamedEntityGraph(name = "Usuario.roles", attributeNodes = @NamedAttributeNode("roles")),
+        @NamedEntityGraph(name = "Usuario.edicao", attributeNodes = {@NamedAttributeNode("lojaAssociada"), @NamedAttributeNode("roles")})
+})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Usuario {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuarios_seq")
+    @SequenceGenerator(name = "usuarios_seq", sequenceName = "usuarios_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -26,18 +34,28 @@ public class Usuario {
     @Column(nullable = false, unique = true)
     private String email;
 
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(nullable = false)
     private String senha;
 
     @Column(nullable = false)
     private Cargo cargo;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     private Revenda lojaAssociada;
 
     @Column(name = "horario_ultima_oportunidade")
     private Date horarioUltimaOportunidade;
 
+    /**
+     * Oportunidades associadas e não concluídas. Alterado somente por UPDATE relativo (ContadorAtendimentosAbertos),
+     * nunca pela gravação da entidade.
+     */
+    @Builder.Default
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "atendimentos_abertos", updatable = false)
+    private Integer atendimentosAbertos = 0;
+
     @ManyToMany
     private List<Role> roles;
 }
\ No newline at end of file
@@ -0,0 +1,150 @@
+package com.mobiauto.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Guarda as credenciais Basic que já passaram pelo BCrypt, evitando refazer a verificação a cada requisição.
+ * A senha nunca é armazenada: apenas um HMAC de "email:senha" com chave aleatória gerada na subida da aplicação.
+ * Os emails em cache de cada usuário ficam em um índice à parte, para que a invalidação não percorra o cache inteiro;
+ * o índice pode conter emails que já saíram do cache, mas nunca deixa de conter um que ainda esteja nele.
+ * Quem consulta o banco lê a geracao() antes e a passa ao registrar: se o usuário (ou o cache inteiro) foi invalidado
+ * depois dessa leitura, a credencial lida antes da alteração não volta para o cache.
+ */
+@Component
+public class CacheCredenciais {
+
+    private static final String ALGORITMO = "HmacSHA256";
+
+    private final Cache<String, CredencialVerificada> cache;
+    private final ConcurrentMap<Long, Set<String>> emailsPorUsuario = new ConcurrentHashMap<>();
+    private final AtomicLong geracao = new AtomicLong();
+    private final Cache<Long, Long> invalidacoes;
+    private volatile long invalidacaoGeral;
+    private final SecretKey chave;
+    private final Counter acertos;
+    private final Counter falhas;
+
+    public CacheCredenciais(MeterRegistry meterRegistry,
+                            @Value("${mobiauto.auth.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+                            @Value("${mobiauto.auth.cache.expiracao:5m}") Duration expiracao) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .evictionListener((String email, CredencialVerificada credencial, RemovalCause causa) -> desindexar(email, credencial))
+                .build();
+        // a geração só importa às autenticações em andamento; o prazo do cache basta para qualquer uma delas
+        this.invalidacoes = Caffeine.newBuilder().expireAfterWrite(expiracao).build();
+        this.chave = gerarChave();
+        this.acertos = meterRegistry.counter("mobiauto.auth.cache", "resultado", "acerto");
+        this.falhas = meterRegistry.counter("mobiauto.auth.cache", "resultado", "falha");
+        meterRegistry.gauge("mobiauto.auth.cache.tamanho", cache, Cache::estimatedSize);
+    }
+
+    public UserPrincipal buscar(String email, String senha) {
+        var credencial = cache.getIfPresent(email);
+
+        if (credencial == null || !MessageDigest.isEqual(credencial.resumo(), resumir(email, senha))) {
+            falhas.increment();
+            return null;
+        }
+
+        acertos.increment();
+        return credencial.userPrincipal();
+    }
+
+    /**
+     * Deve ser lida antes da consulta do usuário no banco e passada ao registrar.
+     */
+    public long geracao() {
+        return geracao.get();
+    }
+
+    public void registrar(String email, String senha, Long usuarioId, UserPrincipal userPrincipal, long geracaoLida) {
+        if (invalidadoDepois(usuarioId, geracaoLida)) {
+            return;
+        }
+        var credencial = new CredencialVerificada(resumir(email, senha), usuarioId, userPrincipal);
+        var anterior = cache.asMap().put(email, credencial);
+        if (anterior != null && !Objects.equals(anterior.usuarioId(), usuarioId)) {
+            desindexar(email, anterior);
+        }
+        // depois do put: uma remoção do índice nunca pode acontecer depois da inclusão e antes da credencial
+        emailsPorUsuario.compute(usuarioId, (id, emails) -> {
+            var conjunto = emails != null ? emails : ConcurrentHashMap.<String>newKeySet();
+            conjunto.add(email);
+            return conjunto;
+        });
+        // a invalidação marca a geração antes de ler o índice: ou ela já vê este email, ou esta verificação a vê
+        if (invalidadoDepois(usuarioId, geracaoLida)) {
+            cache.asMap().remove(email, credencial);
+        }
+    }
+
+    public void invalidar(Long usuarioId) {
+        invalidacoes.put(usuarioId, geracao.incrementAndGet());
+        var emails = emailsPorUsuario.remove(usuarioId);
+        if (emails == null) {
+            return;
+        }
+        emails.forEach(email -> cache.asMap().computeIfPresent(email,
+                (chave, credencial) -> Objects.equals(credencial.usuarioId(), usuarioId) ? null : credencial));
+    }
+
+    public void invalidarTudo() {
+        invalidacaoGeral = geracao.incrementAndGet();
+        cache.invalidateAll();
+        emailsPorUsuario.clear();
+    }
+
+    private boolean invalidadoDepois(Long usuarioId, long geracaoLida) {
+        var invalidacao = invalidacoes.getIfPresent(usuarioId);
+        return invalidacaoGeral > geracaoLida || invalidacao != null && invalidacao > geracaoLida;
+    }
+
+    private void desindexar(String email, CredencialVerificada credencial) {
+        emailsPorUsuario.computeIfPresent(credencial.usuarioId(), (id, emails) -> {
+            emails.remove(email);
+            return emails.isEmpty() ? null : emails;
+        });
+    }
+
+    private byte[] resumir(String email, String senha) {
+        try {
+            var mac = Mac.getInstance(ALGORITMO);
+            mac.init(chave);
+            return mac.doFinal((email + ":" + senha).getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Não foi possível calcular o resumo da credencial.", e);
+        }
+    }
+
+    private static SecretKey gerarChave() {
+        try {
+            return KeyGenerator.getInstance(ALGORITMO).generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Não foi possível gerar a chave do cache de credenciais.", e);
+        }
+    }
+
+    private record CredencialVerificada(byte[] resumo, Long usuarioId, UserPrincipal userPrincipal) {
+    }
+}
@@ -27,10 +27,8 @@ public class CustomBasicAuthenticationFilter extends OncePerRequestFilter {
     private static final String AUTHORIZATION = "Authorization";
     private static final String BASIC = "Basic ";
     private final UsuarioRepository repository;
-
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
+    private final CacheCredenciais cacheCredenciais;
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
@@ -52,40 +50,47 @@ public class CustomBasicAuthenticationFilter extends OncePerRequestFilter {
             String username = credentials[0];
             String password = credentials[1];
 
-            Usuario usuario = repository.findByEmailFetchRoles(username);
+            UserPrincipal userPrincipal = cacheCredenciais.buscar(username, password);
 
-            if (usuario == null) {
-                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                response.getWriter().write("O usuário informado na autenticação não existe.");
-                return;
-            }
+            if (userPrincipal == null) {
+                long geracao = cacheCredenciais.geracao();
+                Usuario usuario = repository.findByEmailFetchRoles(username);
 
-            boolean valid = checkPassword(usuario.getSenha(), password);
+                if (usuario == null) {
+                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                    response.getWriter().write("O usuário informado na autenticação não existe.");
+                    return;
+                }
 
-            if (!valid) {
-                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                response.getWriter().write("A senha informada na autenticação está incorreta.");
-                return;
+                boolean valid = checkPassword(usuario.getSenha(), password);
+
+                if (!valid) {
+                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                    response.getWriter().write("A senha informada na autenticação está incorreta.");
+                    return;
+                }
+
+                userPrincipal = UserPrincipal.create(usuario);
+                cacheCredenciais.registrar(username, password, usuario.getId(), userPrincipal, geracao);
             }
 
-            setAuthentication(usuario);
+            setAuthentication(userPrincipal);
         }
 
         filterChain.doFilter(request, response);
     }
 
-    private void setAuthentication(Usuario usuario) {
-        Authentication authentication = createAuthenticationToken(usuario);
+    private void setAuthentication(UserPrincipal userPrincipal) {
+        Authentication authentication = createAuthenticationToken(userPrincipal);
         SecurityContextHolder.getContext().setAuthentication(authentication);
     }
 
-    private Authentication createAuthenticationToken(Usuario usuario) {
-        UserPrincipal userPrincipal = UserPrincipal.create(usuario);
+    private Authentication createAuthenticationToken(UserPrincipal userPrincipal) {
         return new UsernamePasswordAuthenticationToken(userPrincipal, null, userPrincipal.getAuthorities());
     }
 
     private boolean checkPassword(String userPassword, String loginPassword) {
-        return passwordEncoder().matches(loginPassword, userPassword);
+        return passwordEncoder.matches(loginPassword, userPassword);
     }
 
     private String decodeBase64(String base64) {
@@ -0,0 +1,53 @@
+package com.mobiauto.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+@Component
+@RequiredArgsConstructor
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String AUTHORIZATION = "Authorization";
+    private static final String BEARER = "Bearer ";
+    private final TokenService tokenService;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        if (isBearerAuthentication(request)) {
+
+            UserPrincipal userPrincipal = tokenService.validar(getHeader(request).substring(BEARER.length()).trim());
+
+            if (userPrincipal == null) {
+                response.setHeader("Content-Type", "text/xml; charset=UTF-8");
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                response.getWriter().write("O token de acesso informado é inválido ou expirou.");
+                return;
+            }
+
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(userPrincipal, null, userPrincipal.getAuthorities()));
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean isBearerAuthentication(HttpServletRequest request) {
+        String header = getHeader(request);
+        return header != null && header.startsWith(BEARER);
+    }
+
+    private String getHeader(HttpServletRequest request) {
+        return request.getHeader(AUTHORIZATION);
+    }
+}
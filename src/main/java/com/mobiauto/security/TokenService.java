@@ -0,0 +1,125 @@
+package com.mobiauto.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mobiauto.enumerated.Cargo;
+import com.mobiauto.model.Usuario;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Emite e valida tokens de acesso no formato "payload.assinatura", ambos em Base64 URL,
+ * assinados com HMAC-SHA256. A validação não consulta o banco nem usa BCrypt.
+ */
+@Slf4j
+@Component
+public class TokenService {
+
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final ObjectMapper objectMapper;
+    private final SecretKey chave;
+    private final Duration validade;
+    private final Clock clock;
+
+    @Autowired
+    public TokenService(ObjectMapper objectMapper,
+                        @Value("${mobiauto.auth.token.segredo:}") String segredo,
+                        @Value("${mobiauto.auth.token.validade:15m}") Duration validade) {
+        this(objectMapper, segredo, validade, Clock.systemUTC());
+    }
+
+    TokenService(ObjectMapper objectMapper, String segredo, Duration validade, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.chave = segredo == null || segredo.isBlank() ? gerarChave() : new SecretKeySpec(Base64.getDecoder().decode(segredo), ALGORITMO);
+        this.validade = validade;
+        this.clock = clock;
+    }
+
+    public Token emitir(Usuario usuario) {
+        var expiraEm = Instant.now(clock).plus(validade);
+        var userPrincipal = UserPrincipal.create(usuario);
+
+        var conteudo = new Conteudo(
+                userPrincipal.getUsername(),
+                userPrincipal.getId(),
+                userPrincipal.getCargo(),
+                userPrincipal.getRevendaId(),
+                userPrincipal.getAuthorityNames(),
+                expiraEm.getEpochSecond());
+
+        try {
+            var payload = ENCODER.encodeToString(objectMapper.writeValueAsBytes(conteudo));
+            return new Token(payload + "." + ENCODER.encodeToString(assinar(payload)), expiraEm);
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível gerar o token de acesso.", e);
+        }
+    }
+
+    public UserPrincipal validar(String token) {
+        var separador = token.indexOf('.');
+        if (separador <= 0 || separador != token.lastIndexOf('.')) {
+            return null;
+        }
+
+        var payload = token.substring(0, separador);
+
+        try {
+            var assinatura = DECODER.decode(token.substring(separador + 1));
+            if (!MessageDigest.isEqual(assinatura, assinar(payload))) {
+                return null;
+            }
+
+            var conteudo = objectMapper.readValue(DECODER.decode(payload), Conteudo.class);
+            if (Instant.now(clock).getEpochSecond() >= conteudo.exp()) {
+                return null;
+            }
+
+            return UserPrincipal.create(conteudo.uid(), conteudo.sub(), conteudo.car(), conteudo.rid(), conteudo.aut());
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+    }
+
+    private byte[] assinar(String payload) {
+        try {
+            var mac = Mac.getInstance(ALGORITMO);
+            mac.init(chave);
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Não foi possível assinar o token de acesso.", e);
+        }
+    }
+
+    private static SecretKey gerarChave() {
+        log.warn("mobiauto.auth.token.segredo não configurado: usando chave aleatória, tokens não valerão entre instâncias nem após reinício.");
+        try {
+            return KeyGenerator.getInstance(ALGORITMO).generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Não foi possível gerar a chave de assinatura dos tokens.", e);
+        }
+    }
+
+    public record Token(String valor, Instant expiraEm) {
+    }
+
+    private record Conteudo(String sub, Long uid, Cargo car, Long rid, List<String> aut, long exp) {
+    }
+}
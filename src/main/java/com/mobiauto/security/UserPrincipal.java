@@ -1,29 +1,56 @@
 package com.mobiauto.security;
 
 
+import com.mobiauto.enumerated.Cargo;
+import com.mobiauto.model.Revenda;
 import com.mobiauto.model.Usuario;
 import lombok.Getter;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Getter
 public class UserPrincipal {
+    private final Long id;
     private final String username;
     private final String password;
+    private final Cargo cargo;
+    private final Long revendaId;
     private final Collection<? extends GrantedAuthority> authorities;
 
     private UserPrincipal(Usuario usuario) {
+        this.id = usuario.getId();
         this.username = usuario.getEmail();
         this.password = usuario.getSenha();
+        this.cargo = usuario.getCargo();
+        this.revendaId = Optional.ofNullable(usuario.getLojaAssociada()).map(Revenda::getId).orElse(null);
 
         this.authorities = usuario.getRoles().stream().map(role -> new SimpleGrantedAuthority("ROLE_".concat(role.getName()))).collect(Collectors.toList());
     }
 
+    private UserPrincipal(Long id, String username, Cargo cargo, Long revendaId, Collection<String> authorities) {
+        this.id = id;
+        this.username = username;
+        this.password = null;
+        this.cargo = cargo;
+        this.revendaId = revendaId;
+        this.authorities = authorities.stream().map(SimpleGrantedAuthority::new).toList();
+    }
+
     public static UserPrincipal create(Usuario usuario) {
         return new UserPrincipal(usuario);
     }
 
-}
\ No newline at end of file
+    public static UserPrincipal create(Long id, String username, Cargo cargo, Long revendaId, Collection<String> authorities) {
+        return new UserPrincipal(id, username, cargo, revendaId, authorities);
+    }
+
+    public List<String> getAuthorityNames() {
+        return authorities.stream().map(GrantedAuthority::getAuthority).toList();
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.mobiauto.service;
+
+import com.mobiauto.dto.LoginDto;
+import com.mobiauto.dto.TokenDto;
+
+public interface AutenticacaoService {
+
+    TokenDto login(LoginDto loginDto);
+}
@@ -1,25 +1,81 @@
 package com.mobiauto.service;
 
 
+import com.mobiauto.dto.AlteracoesDto;
 import com.mobiauto.dto.CadastroOportunidadeDto;
+import com.mobiauto.dto.EstatisticasRevendaDto;
+import com.mobiauto.dto.FiltroOportunidadeDto;
+import com.mobiauto.dto.OportunidadeResumoDto;
+import com.mobiauto.dto.PaginaDto;
+import com.mobiauto.dto.ResultadoImportacaoDto;
+import com.mobiauto.dto.SerieDiariaDto;
+import com.mobiauto.enumerated.FormatoArquivo;
 import com.mobiauto.model.Oportunidade;
 import com.mobiauto.security.UserPrincipal;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.List;
 
 public interface OportunidadeService {
 
     Oportunidade findById(Long id);
 
-    List<Oportunidade> findAll();
+    PaginaDto<OportunidadeResumoDto> findAll(String cursor, Integer limite);
 
     List<Oportunidade> findAllInRevenda(Long idRevenda);
 
-    List<Oportunidade>  buscarOportunidadesDaRevenda( UserPrincipal userPrincipal);
+    PaginaDto<OportunidadeResumoDto> buscarOportunidadesDaRevenda(UserPrincipal userPrincipal, String cursor, Integer limite);
+
+    PaginaDto<OportunidadeResumoDto> pesquisarOportunidadesDaRevenda(UserPrincipal userPrincipal, FiltroOportunidadeDto filtro, String cursor, Integer limite);
+
+    List<OportunidadeResumoDto> buscarTextoNaRevenda(UserPrincipal userPrincipal, String texto, Integer limite);
+
+    /**
+     * Oportunidades da revenda alteradas e excluídas depois do cursor 'desde' (AlteracoesOportunidades); sem cursor,
+     * todas as oportunidades da revenda. O cursor devolvido é o 'desde' da próxima chamada.
+     */
+    AlteracoesDto buscarAlteracoesDaRevenda(UserPrincipal userPrincipal, String desde, Integer limite);
+
+    /**
+     * Inscreve o usuário no stream de alterações das oportunidades da sua revenda (TransmissaoOportunidades).
+     */
+    SseEmitter acompanharOportunidadesDaRevenda(UserPrincipal userPrincipal);
 
     Oportunidade save(CadastroOportunidadeDto cadastroOportunidadeDto);
 
+    List<OportunidadeResumoDto> saveAll(List<CadastroOportunidadeDto> cadastrosOportunidades);
+
+    ResultadoImportacaoDto importar(InputStream conteudo, FormatoArquivo formato);
+
+    void exportar(OutputStream saida, FormatoArquivo formato) throws IOException;
+
+    /**
+     * Totais por status, taxa de conversão e média de dias até a conclusão da revenda e de cada usuário associado,
+     * lidos de estatisticas_oportunidades.
+     */
+    EstatisticasRevendaDto buscarEstatisticas(Long idRevenda);
+
+    EstatisticasRevendaDto buscarEstatisticasDaRevenda(UserPrincipal userPrincipal);
+
+    /**
+     * Oportunidades recebidas e concluídas por dia no período (padrão: os últimos 365 dias), lidas de
+     * contagens_diarias_oportunidades.
+     */
+    SerieDiariaDto buscarSerieDiaria(Long idRevenda, LocalDate de, LocalDate ate);
+
+    SerieDiariaDto buscarSerieDiariaDaRevenda(UserPrincipal userPrincipal, LocalDate de, LocalDate ate);
+
     Oportunidade atender(CadastroOportunidadeDto cadastroOportunidadeDto, UserPrincipal userPrincipal);
 
+    /**
+     * Grava a oportunidade sem assistente e a coloca na fila de atendimento, que faz a atribuição em segundo plano.
+     */
+    Oportunidade receberParaAtendimento(CadastroOportunidadeDto cadastroOportunidadeDto, UserPrincipal userPrincipal);
+
     Oportunidade update(Long id, Oportunidade obj);
 
     Oportunidade editarOportunidadeEmRevenda(Long id, Oportunidade oportunidade, UserPrincipal userPrincipal);
@@ -1,7 +1,7 @@
 package com.mobiauto.service;
 
+import com.mobiauto.dto.PaginaDto;
 import com.mobiauto.model.Revenda;
-import java.util.List;
 
 public interface RevendaService {
 
@@ -9,7 +9,7 @@ public interface RevendaService {
 
     Revenda findByCnpj(String cnpj);
 
-    List<Revenda> findAll();
+    PaginaDto<Revenda> findAll(String cursor, Integer limite);
 
     Revenda save(Revenda obj);
 
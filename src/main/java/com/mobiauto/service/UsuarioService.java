@@ -1,5 +1,7 @@
 package com.mobiauto.service;
 
+import com.mobiauto.dto.PaginaDto;
+import com.mobiauto.dto.UsuarioResumoDto;
 import com.mobiauto.model.Usuario;
 import com.mobiauto.security.UserPrincipal;
 
@@ -11,11 +13,13 @@ public interface UsuarioService {
 
     Usuario findByEmail(String email);
 
-    List<Usuario> findAll();
+    PaginaDto<UsuarioResumoDto> findAll(String cursor, Integer limite);
 
     List<Usuario> findAllInRevenda(Long idRevenda);
 
-    List<Usuario> buscarUsuariosDaRevenda(UserPrincipal userPrincipal);
+    Usuario findParaAtendimento(Long id);
+
+    PaginaDto<UsuarioResumoDto> buscarUsuariosDaRevenda(UserPrincipal userPrincipal, String cursor, Integer limite);
 
     Usuario save(Usuario obj);
 
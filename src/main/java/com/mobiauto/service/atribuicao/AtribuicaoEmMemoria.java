@@ -0,0 +1,35 @@
+package com.mobiauto.service.atribuicao;
+
+import com.mobiauto.service.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+
+/**
+ * Escolhe o assistente pelo {@link IndiceAssistentesOciosos}, sem consultar o banco, e grava o horário da atribuição.
+ * A escolha só é atômica dentro da instância: para várias réplicas, use a estratégia "banco".
+ */
+@Component
+@ConditionalOnProperty(name = EstrategiaAtribuicao.PROPRIEDADE, havingValue = "memoria")
+@RequiredArgsConstructor
+public class AtribuicaoEmMemoria implements EstrategiaAtribuicao {
+
+    private final IndiceAssistentesOciosos indiceAssistentesOciosos;
+    private final UsuarioRepository usuarioRepository;
+
+    @Override
+    @Transactional
+    public Long atribuir(Long idRevenda, Date horario) {
+        Long idAssistente;
+        while ((idAssistente = indiceAssistentesOciosos.atribuirProximo(idRevenda, horario)) != null) {
+            if (usuarioRepository.atualizarHorarioUltimaOportunidade(idAssistente, horario) > 0) {
+                return idAssistente;
+            }
+            indiceAssistentesOciosos.remover(idAssistente);
+        }
+        return null;
+    }
+}
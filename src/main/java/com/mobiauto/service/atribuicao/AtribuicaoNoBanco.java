@@ -0,0 +1,37 @@
+package com.mobiauto.service.atribuicao;
+
+import com.mobiauto.enumerated.Cargo;
+import com.mobiauto.service.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+
+/**
+ * Escolhe e atualiza o assistente mais ocioso em uma única instrução no PostgreSQL. Com a {@link TravaAtribuicaoRevenda},
+ * as atribuições da revenda são serializadas entre todas as instâncias e cada uma recebe exatamente o mais ocioso.
+ * Se a trava não vier dentro da espera, assistentes já travados por atendimentos concorrentes são pulados (SKIP LOCKED),
+ * e só quando todos estão travados a atribuição espera pelo mais ocioso, para que a oportunidade não fique sem assistente.
+ */
+@Component
+@ConditionalOnProperty(name = EstrategiaAtribuicao.PROPRIEDADE, havingValue = "banco", matchIfMissing = true)
+@RequiredArgsConstructor
+public class AtribuicaoNoBanco implements EstrategiaAtribuicao {
+
+    private final UsuarioRepository usuarioRepository;
+    private final TravaAtribuicaoRevenda travaAtribuicaoRevenda;
+
+    @Override
+    @Transactional
+    public Long atribuir(Long idRevenda, Date horario) {
+        var cargo = Cargo.ASSISTENTE.ordinal();
+        if (travaAtribuicaoRevenda.travar(idRevenda)) {
+            return usuarioRepository.atribuirAssistenteMaisOcioso(idRevenda, cargo, horario).orElse(null);
+        }
+        return usuarioRepository.atribuirAssistenteMaisOciosoLivre(idRevenda, cargo, horario)
+                .or(() -> usuarioRepository.atribuirAssistenteMaisOcioso(idRevenda, cargo, horario))
+                .orElse(null);
+    }
+}
@@ -0,0 +1,36 @@
+package com.mobiauto.service.atribuicao;
+
+import com.mobiauto.enumerated.Cargo;
+import com.mobiauto.service.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+
+/**
+ * Escolhe o assistente com menos oportunidades em aberto (usuarios.atendimentos_abertos, mantido por
+ * {@link ContadorAtendimentosAbertos}), desempatando pelo mais ocioso. Usa a mesma trava por revenda e a mesma
+ * instrução única de {@link AtribuicaoNoBanco}, sem contar oportunidades no momento da atribuição.
+ */
+@Component
+@ConditionalOnProperty(name = EstrategiaAtribuicao.PROPRIEDADE, havingValue = "carga")
+@RequiredArgsConstructor
+public class AtribuicaoPorCarga implements EstrategiaAtribuicao {
+
+    private final UsuarioRepository usuarioRepository;
+    private final TravaAtribuicaoRevenda travaAtribuicaoRevenda;
+
+    @Override
+    @Transactional
+    public Long atribuir(Long idRevenda, Date horario) {
+        var cargo = Cargo.ASSISTENTE.ordinal();
+        if (travaAtribuicaoRevenda.travar(idRevenda)) {
+            return usuarioRepository.atribuirAssistenteMenosCarregado(idRevenda, cargo, horario).orElse(null);
+        }
+        return usuarioRepository.atribuirAssistenteMenosCarregadoLivre(idRevenda, cargo, horario)
+                .or(() -> usuarioRepository.atribuirAssistenteMenosCarregado(idRevenda, cargo, horario))
+                .orElse(null);
+    }
+}
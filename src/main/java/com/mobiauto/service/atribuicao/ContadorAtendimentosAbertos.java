@@ -0,0 +1,71 @@
+package com.mobiauto.service.atribuicao;
+
+import com.mobiauto.service.evento.OportunidadeAlterada;
+import com.mobiauto.service.evento.OrdemGravacao;
+import com.mobiauto.service.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mantém usuarios.atendimentos_abertos a partir das alterações de oportunidades. As variações são somadas por usuário
+ * durante a transação e gravadas uma única vez antes do commit, com um UPDATE relativo por usuário afetado, em ordem de id.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContadorAtendimentosAbertos {
+
+    private final UsuarioRepository usuarioRepository;
+
+    @EventListener
+    public void aoAlterarOportunidade(OportunidadeAlterada evento) {
+        if (evento.anterior() != null && evento.anterior().emAberto()) {
+            somar(evento.anterior().idUsuario(), -1);
+        }
+        if (evento.atual() != null && evento.atual().emAberto()) {
+            somar(evento.atual().idUsuario(), 1);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void somar(Long idUsuario, int variacao) {
+        var variacoes = (Map<Long, Integer>) TransactionSynchronizationManager.getResource(this);
+
+        if (variacoes == null) {
+            variacoes = new TreeMap<>();
+            TransactionSynchronizationManager.bindResource(this, variacoes);
+            TransactionSynchronizationManager.registerSynchronization(new GravacaoVariacoes());
+        }
+
+        variacoes.merge(idUsuario, variacao, Integer::sum);
+    }
+
+    private final class GravacaoVariacoes implements TransactionSynchronization {
+
+        @Override
+        public int getOrder() {
+            return OrdemGravacao.USUARIOS;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void beforeCommit(boolean readOnly) {
+            var variacoes = (Map<Long, Integer>) TransactionSynchronizationManager.getResource(ContadorAtendimentosAbertos.this);
+            variacoes.forEach((idUsuario, variacao) -> {
+                if (variacao != 0) {
+                    usuarioRepository.somarAtendimentosAbertos(idUsuario, variacao);
+                }
+            });
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(ContadorAtendimentosAbertos.this);
+        }
+    }
+}
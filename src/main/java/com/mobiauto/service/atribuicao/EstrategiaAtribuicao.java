@@ -0,0 +1,17 @@
+package com.mobiauto.service.atribuicao;
+
+import java.util.Date;
+
+/**
+ * Escolhe o assistente da revenda que recebe a próxima oportunidade e grava nele o horário da atribuição, em uma
+ * transação curta e separada da gravação da oportunidade. A implementação é selecionada por mobiauto.atribuicao.estrategia.
+ */
+public interface EstrategiaAtribuicao {
+
+    String PROPRIEDADE = "mobiauto.atribuicao.estrategia";
+
+    /**
+     * Retorna o id do assistente escolhido, ou null se a revenda não possuir assistentes.
+     */
+    Long atribuir(Long idRevenda, Date horario);
+}
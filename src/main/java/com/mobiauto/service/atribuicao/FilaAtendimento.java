@@ -0,0 +1,153 @@
+package com.mobiauto.service.atribuicao;
+
+import com.mobiauto.model.Usuario;
+import com.mobiauto.service.evento.OportunidadeAlterada;
+import com.mobiauto.service.repository.OportunidadeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Fila limitada das oportunidades recebidas em /atender/fila, já gravadas com atribuicao_pendente. Um único worker
+ * esvazia a fila em lotes e atribui os assistentes revenda a revenda, uma transação por revenda. Oportunidades que não
+ * couberam na fila, ou que ficaram pendentes por reinício ou falha, são recolocadas a partir do banco periodicamente.
+ */
+@Slf4j
+@Component
+public class FilaAtendimento {
+
+    private static final ZoneId ZONE_ID = ZoneId.of("America/Sao_Paulo");
+
+    private final OportunidadeRepository oportunidadeRepository;
+    private final EstrategiaAtribuicao estrategiaAtribuicao;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    private final BlockingQueue<Item> fila;
+    private final Set<Long> enfileiradas = ConcurrentHashMap.newKeySet();
+    private final int tamanhoLote;
+    private final AtomicLong ultimoHorario = new AtomicLong();
+
+    private final Timer espera;
+    private final Counter recusadas;
+
+    public FilaAtendimento(OportunidadeRepository oportunidadeRepository,
+                           EstrategiaAtribuicao estrategiaAtribuicao,
+                           ApplicationEventPublisher eventPublisher,
+                           TransactionTemplate transactionTemplate,
+                           EntityManager entityManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${mobiauto.atendimento.fila.capacidade:10000}") int capacidade,
+                           @Value("${mobiauto.atendimento.fila.lote:200}") int tamanhoLote) {
+        this.oportunidadeRepository = oportunidadeRepository;
+        this.estrategiaAtribuicao = estrategiaAtribuicao;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+        this.tamanhoLote = tamanhoLote;
+        this.espera = meterRegistry.timer("mobiauto.atendimento.fila.espera");
+        this.recusadas = meterRegistry.counter("mobiauto.atendimento.fila.recusadas");
+        meterRegistry.gauge("mobiauto.atendimento.fila.tamanho", fila, BlockingQueue::size);
+    }
+
+    /**
+     * Deve ser chamado depois do commit da oportunidade. Com a fila cheia a oportunidade continua pendente no banco
+     * e entra na próxima recuperação.
+     */
+    public void enfileirar(Long idOportunidade, Long idRevenda) {
+        if (!enfileiradas.add(idOportunidade)) {
+            return;
+        }
+        if (!fila.offer(new Item(idOportunidade, idRevenda, Instant.now()))) {
+            enfileiradas.remove(idOportunidade);
+            recusadas.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${mobiauto.atendimento.fila.intervalo:100}", initialDelayString = "${mobiauto.atendimento.fila.intervalo:100}")
+    public void processar() {
+        var lote = new ArrayList<Item>(tamanhoLote);
+
+        while (fila.drainTo(lote, tamanhoLote) > 0) {
+            lote.stream()
+                    .collect(Collectors.groupingBy(Item::idRevenda, LinkedHashMap::new, Collectors.toList()))
+                    .forEach(this::atribuirLote);
+            lote.forEach(item -> enfileiradas.remove(item.idOportunidade()));
+            lote.clear();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${mobiauto.atendimento.fila.recuperacao:30000}", initialDelayString = "${mobiauto.atendimento.fila.recuperacao:30000}")
+    public void recuperarPendentes() {
+        var vagas = fila.remainingCapacity();
+        if (vagas == 0) {
+            return;
+        }
+        oportunidadeRepository.buscarPendentesDeAtribuicao(Limit.of(vagas))
+                .forEach(pendente -> enfileirar(pendente.idOportunidade(), pendente.idRevenda()));
+    }
+
+    private void atribuirLote(Long idRevenda, List<Item> itens) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                var ids = itens.stream().map(Item::idOportunidade).toList();
+
+                for (var oportunidade : oportunidadeRepository.travarPendentesDeAtribuicao(ids)) {
+                    var anterior = OportunidadeAlterada.Situacao.de(oportunidade);
+
+                    if (oportunidade.getUsuarioAssociado() == null) {
+                        var idAssistente = estrategiaAtribuicao.atribuir(idRevenda, proximoHorario());
+                        if (idAssistente != null) {
+                            oportunidade.setUsuarioAssociado(entityManager.getReference(Usuario.class, idAssistente));
+                            oportunidade.setDataAtribuicao(LocalDate.now(ZONE_ID));
+                        }
+                    }
+
+                    oportunidade.setAtribuicaoPendente(false);
+                    eventPublisher.publishEvent(OportunidadeAlterada.edicao(anterior, oportunidade));
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Falha ao atribuir {} oportunidades da revenda {}; permanecem pendentes.", itens.size(), idRevenda, e);
+            return;
+        }
+
+        var agora = Instant.now();
+        itens.forEach(item -> espera.record(Duration.between(item.recebidoEm(), agora)));
+    }
+
+    /**
+     * Horários estritamente crescentes, para que as atribuições de um mesmo lote (no mesmo milissegundo) sigam o rodízio.
+     */
+    private Date proximoHorario() {
+        return new Date(ultimoHorario.updateAndGet(ultimo -> Math.max(ultimo + 1, System.currentTimeMillis())));
+    }
+
+    private record Item(Long idOportunidade, Long idRevenda, Instant recebidoEm) {
+    }
+}
@@ -0,0 +1,224 @@
+package com.mobiauto.service.atribuicao;
+
+import com.mobiauto.enumerated.Cargo;
+import com.mobiauto.model.Revenda;
+import com.mobiauto.model.Usuario;
+import com.mobiauto.service.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Índice em memória, por revenda, dos assistentes ordenados pelo horário da última oportunidade recebida.
+ * A escolha do assistente mais ocioso é O(log n) e não consulta o banco; cada revenda é carregada do banco
+ * no primeiro atendimento e, a partir daí, mantida pelos cadastros, edições, exclusões e atribuições de usuários.
+ */
+@Component
+@RequiredArgsConstructor
+public class IndiceAssistentesOciosos {
+
+    private final UsuarioRepository usuarioRepository;
+
+    private final ConcurrentMap<Long, FilaRevenda> filas = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Long> revendaPorUsuario = new ConcurrentHashMap<>();
+
+    private final Object atribuicoesDaTransacao = new Object();
+
+    /**
+     * Retorna o id do assistente mais ocioso da revenda, já reposicionado com o horário informado, ou null se não houver assistentes.
+     * O reposicionamento vale de imediato, para que atribuições concorrentes escolham outro assistente; dentro de uma
+     * transação, ele é desfeito se ela for desfeita, a menos que o assistente já tenha sido reposicionado de novo.
+     */
+    @SuppressWarnings("unchecked")
+    public Long atribuirProximo(Long idRevenda, Date horario) {
+        var fila = obterFila(idRevenda);
+        var anterior = fila.atribuirProximo(horario);
+        if (anterior == null) {
+            return null;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            var atribuicoes = (Deque<Atribuicao>) TransactionSynchronizationManager.getResource(atribuicoesDaTransacao);
+            if (atribuicoes == null) {
+                atribuicoes = new ArrayDeque<>();
+                TransactionSynchronizationManager.bindResource(atribuicoesDaTransacao, atribuicoes);
+                TransactionSynchronizationManager.registerSynchronization(new RestauracaoAposRollback());
+            }
+            atribuicoes.push(new Atribuicao(fila, anterior, FilaRevenda.instante(horario)));
+        }
+        return anterior.idUsuario();
+    }
+
+    /**
+     * Reposiciona o usuário após cadastro, edição ou atribuição de oportunidade; usuários que deixaram de ser
+     * assistentes, ou que mudaram de revenda, saem da fila anterior. Dentro de uma transação o índice é atualizado
+     * depois do commit, com o estado final do usuário, e nada muda se ela for desfeita; fora dela, imediatamente.
+     */
+    @SuppressWarnings("unchecked")
+    public void registrar(Usuario usuario) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reposicionar(usuario);
+            return;
+        }
+
+        var usuarios = (Map<Long, Usuario>) TransactionSynchronizationManager.getResource(this);
+        if (usuarios == null) {
+            usuarios = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, usuarios);
+            TransactionSynchronizationManager.registerSynchronization(new RegistroAposCommit());
+        }
+        usuarios.put(usuario.getId(), usuario);
+    }
+
+    private void reposicionar(Usuario usuario) {
+        var idRevenda = usuario.getCargo() == Cargo.ASSISTENTE
+                ? Optional.ofNullable(usuario.getLojaAssociada()).map(Revenda::getId).orElse(null)
+                : null;
+        var idRevendaAnterior = revendaPorUsuario.get(usuario.getId());
+
+        if (idRevendaAnterior != null && !idRevendaAnterior.equals(idRevenda)) {
+            remover(usuario.getId());
+        }
+        if (idRevenda != null) {
+            filas.computeIfPresent(idRevenda, (id, fila) -> {
+                revendaPorUsuario.put(usuario.getId(), id);
+                return fila.atualizar(usuario.getId(), usuario.getHorarioUltimaOportunidade());
+            });
+        }
+    }
+
+    public void remover(Long idUsuario) {
+        var idRevenda = revendaPorUsuario.remove(idUsuario);
+        if (idRevenda != null) {
+            filas.computeIfPresent(idRevenda, (id, fila) -> fila.remover(idUsuario));
+        }
+    }
+
+    /**
+     * A carga da revenda consulta o banco fora do mapa, para não segurar a trava dele durante a consulta; se duas
+     * threads carregarem a mesma revenda, vale a primeira fila publicada.
+     */
+    private FilaRevenda obterFila(Long idRevenda) {
+        var fila = filas.get(idRevenda);
+        if (fila != null) {
+            return fila;
+        }
+
+        var carregada = carregar(idRevenda);
+        var publicada = filas.putIfAbsent(idRevenda, carregada);
+        return publicada != null ? publicada : carregada;
+    }
+
+    private FilaRevenda carregar(Long idRevenda) {
+        var fila = new FilaRevenda();
+        for (var assistente : usuarioRepository.findByLojaAssociadaIdAndCargo(idRevenda, Cargo.ASSISTENTE)) {
+            revendaPorUsuario.put(assistente.getId(), idRevenda);
+            fila.atualizar(assistente.getId(), assistente.getHorarioUltimaOportunidade());
+        }
+        return fila;
+    }
+
+    private final class RegistroAposCommit implements TransactionSynchronization {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void afterCommit() {
+            ((Map<Long, Usuario>) TransactionSynchronizationManager.getResource(IndiceAssistentesOciosos.this))
+                    .values().forEach(IndiceAssistentesOciosos.this::reposicionar);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(IndiceAssistentesOciosos.this);
+        }
+    }
+
+    private final class RestauracaoAposRollback implements TransactionSynchronization {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void afterCompletion(int status) {
+            var atribuicoes = (Deque<Atribuicao>) TransactionSynchronizationManager.unbindResource(atribuicoesDaTransacao);
+            if (status == STATUS_ROLLED_BACK) {
+                // da última para a primeira, para que um assistente atribuído duas vezes volte ao horário de antes da transação
+                atribuicoes.forEach(atribuicao -> atribuicao.fila().restaurar(atribuicao.anterior(), atribuicao.horario()));
+            }
+        }
+    }
+
+    private static final class FilaRevenda {
+
+        private static final Comparator<Entrada> ORDEM = Comparator.comparingLong(Entrada::horario).thenComparing(Entrada::idUsuario);
+
+        private final NavigableSet<Entrada> ordem = new TreeSet<>(ORDEM);
+        private final Map<Long, Entrada> porUsuario = new HashMap<>();
+
+        private static long instante(Date horario) {
+            return horario != null ? horario.getTime() : Long.MIN_VALUE;
+        }
+
+        /**
+         * Retorna a entrada do assistente mais ocioso como estava antes de reposicioná-lo.
+         */
+        private synchronized Entrada atribuirProximo(Date horario) {
+            var maisOcioso = ordem.pollFirst();
+            if (maisOcioso == null) {
+                return null;
+            }
+            porUsuario.remove(maisOcioso.idUsuario());
+            atualizar(maisOcioso.idUsuario(), horario);
+            return maisOcioso;
+        }
+
+        private synchronized FilaRevenda atualizar(Long idUsuario, Date horario) {
+            remover(idUsuario);
+            adicionar(new Entrada(idUsuario, instante(horario)));
+            return this;
+        }
+
+        /**
+         * Volta o assistente à entrada anterior se ele ainda estiver com o horário da atribuição desfeita; se saiu da
+         * fila ou foi reposicionado depois, prevalece o estado atual.
+         */
+        private synchronized void restaurar(Entrada anterior, long horarioAtribuido) {
+            var atual = porUsuario.get(anterior.idUsuario());
+            if (atual != null && atual.horario() == horarioAtribuido) {
+                ordem.remove(atual);
+                adicionar(anterior);
+            }
+        }
+
+        private void adicionar(Entrada entrada) {
+            porUsuario.put(entrada.idUsuario(), entrada);
+            ordem.add(entrada);
+        }
+
+        private synchronized FilaRevenda remover(Long idUsuario) {
+            var entrada = porUsuario.remove(idUsuario);
+            if (entrada != null) {
+                ordem.remove(entrada);
+            }
+            return this;
+        }
+    }
+
+    private record Entrada(Long idUsuario, long horario) {
+    }
+
+    private record Atribuicao(FilaRevenda fila, Entrada anterior, long horario) {
+    }
+}
@@ -0,0 +1,4 @@
+package com.mobiauto.service.atribuicao;
+
+public record OportunidadePendente(Long idOportunidade, Long idRevenda) {
+}
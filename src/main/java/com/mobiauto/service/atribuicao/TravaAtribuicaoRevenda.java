@@ -0,0 +1,55 @@
+package com.mobiauto.service.atribuicao;
+
+import com.mobiauto.service.repository.UsuarioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coordena as atribuições de uma mesma revenda entre instâncias com um advisory lock de transação do PostgreSQL
+ * (pg_try_advisory_xact_lock nas chaves UsuarioRepository.NAMESPACE_TRAVA_ATRIBUICAO e id da revenda), sem colidir com
+ * advisory locks de outros usos. Revendas diferentes não disputam a mesma trava, e ela é liberada no fim da transação
+ * da atribuição. A espera é curta: esgotado o prazo, quem chamou segue sem a trava.
+ */
+@Component
+public class TravaAtribuicaoRevenda {
+
+    private static final long INTERVALO_TENTATIVAS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private final UsuarioRepository usuarioRepository;
+    private final long esperaNanos;
+    private final Counter obtidas;
+    private final Counter esgotadas;
+
+    public TravaAtribuicaoRevenda(UsuarioRepository usuarioRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${mobiauto.atribuicao.trava.espera:50ms}") Duration espera) {
+        this.usuarioRepository = usuarioRepository;
+        this.esperaNanos = espera.toNanos();
+        this.obtidas = meterRegistry.counter("mobiauto.atribuicao.trava", "resultado", "obtida");
+        this.esgotadas = meterRegistry.counter("mobiauto.atribuicao.trava", "resultado", "esgotada");
+    }
+
+    /**
+     * Deve ser chamado dentro da transação da atribuição. Retorna false se a trava não foi obtida dentro da espera.
+     */
+    public boolean travar(Long idRevenda) {
+        var limite = System.nanoTime() + esperaNanos;
+
+        while (!usuarioRepository.tentarTravarAtribuicao(idRevenda)) {
+            if (System.nanoTime() - limite >= 0) {
+                esgotadas.increment();
+                return false;
+            }
+            LockSupport.parkNanos(INTERVALO_TENTATIVAS);
+        }
+
+        obtidas.increment();
+        return true;
+    }
+}
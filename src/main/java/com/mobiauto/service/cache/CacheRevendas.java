@@ -0,0 +1,81 @@
+package com.mobiauto.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mobiauto.model.Revenda;
+import com.mobiauto.service.repository.RevendaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Revendas por id e por CNPJ, consultadas em todo cadastro de oportunidade. CNPJs sem revenda não são guardados, para
+ * que a validação de cadastro nunca aceite um CNPJ repetido. Cada chamada devolve uma cópia da revenda guardada.
+ * As estatísticas ficam em cache.gets, cache.evictions e cache.size (tags cache=revendas.id e cache=revendas.cnpj).
+ */
+@Component
+public class CacheRevendas {
+
+    private final RevendaRepository repository;
+    private final Cache<Long, Revenda> porId;
+    private final Cache<String, Revenda> porCnpj;
+
+    public CacheRevendas(RevendaRepository repository,
+                         MeterRegistry meterRegistry,
+                         @Value("${mobiauto.cache.revendas.tamanho-maximo:1000}") long tamanhoMaximo,
+                         @Value("${mobiauto.cache.revendas.expiracao:10m}") Duration expiracao) {
+        this.repository = repository;
+        this.porId = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+        this.porCnpj = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, porId, "revendas.id");
+        CaffeineCacheMetrics.monitor(meterRegistry, porCnpj, "revendas.cnpj");
+    }
+
+    public Optional<Revenda> buscarPorId(Long id) {
+        return Optional.ofNullable(porId.get(id, chave -> repository.findById(chave).map(CacheRevendas::copia).orElse(null)))
+                .map(CacheRevendas::copia);
+    }
+
+    public Revenda buscarPorCnpj(String cnpj) {
+        if (cnpj == null) {
+            return null;
+        }
+        var revenda = porCnpj.get(cnpj, chave -> Optional.ofNullable(repository.findByCnpj(chave)).map(CacheRevendas::copia).orElse(null));
+        return revenda != null ? copia(revenda) : null;
+    }
+
+    /**
+     * Deve ser chamado depois do commit da alteração ou exclusão da revenda.
+     */
+    public void invalidar(Long id) {
+        porId.invalidate(id);
+        porCnpj.asMap().values().removeIf(revenda -> Objects.equals(revenda.getId(), id));
+    }
+
+    public void invalidarTudo() {
+        porId.invalidateAll();
+        porCnpj.invalidateAll();
+    }
+
+    private static Revenda copia(Revenda revenda) {
+        return Revenda.builder()
+                .id(revenda.getId())
+                .cnpj(revenda.getCnpj())
+                .nomeSocial(revenda.getNomeSocial())
+                .versaoAlteracoes(revenda.getVersaoAlteracoes())
+                .build();
+    }
+}
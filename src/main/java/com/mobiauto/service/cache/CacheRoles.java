@@ -0,0 +1,49 @@
+package com.mobiauto.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mobiauto.enumerated.Cargo;
+import com.mobiauto.model.Role;
+import com.mobiauto.service.repository.RoleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Roles de cada cargo (o próprio nível e os inferiores, em ordem de id), atribuídas no cadastro e na edição de usuários.
+ * As estatísticas ficam em cache.gets e cache.size (tag cache=roles).
+ */
+@Component
+public class CacheRoles {
+
+    private final RoleRepository repository;
+    private final Cache<Cargo, List<Role>> porCargo;
+
+    public CacheRoles(RoleRepository repository,
+                      MeterRegistry meterRegistry,
+                      @Value("${mobiauto.cache.roles.expiracao:1h}") Duration expiracao) {
+        this.repository = repository;
+        this.porCargo = Caffeine.newBuilder()
+                .maximumSize(Cargo.values().length)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, porCargo, "roles");
+    }
+
+    /**
+     * Lista nova a cada chamada, que pode ser associada ao usuário.
+     */
+    public List<Role> buscarPorCargo(Cargo cargo) {
+        return new ArrayList<>(porCargo.get(cargo, chave -> {
+            var roles = repository.findAll(Sort.by("id"));
+            return List.copyOf(roles.subList(chave.ordinal(), roles.size()));
+        }));
+    }
+}
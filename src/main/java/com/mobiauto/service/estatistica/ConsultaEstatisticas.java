@@ -0,0 +1,83 @@
+package com.mobiauto.service.estatistica;
+
+import com.mobiauto.dto.ContagemDiariaDto;
+import com.mobiauto.dto.EstatisticasDto;
+import com.mobiauto.dto.EstatisticasRevendaDto;
+import com.mobiauto.dto.SerieDiariaDto;
+import com.mobiauto.exception.ValidacaoException;
+import com.mobiauto.service.repository.ContagemDiariaOportunidadesRepository;
+import com.mobiauto.service.repository.EstatisticaOportunidadesRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+
+/**
+ * Monta as estatísticas e a série diária de uma revenda a partir das linhas mantidas pela EstatisticasOportunidades,
+ * sem ler as oportunidades. A validação de acesso à revenda fica com quem chama.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConsultaEstatisticas {
+
+    private static final ZoneId ZONE_ID = ZoneId.of("America/Sao_Paulo");
+    private static final int DIAS_SERIE_PADRAO = 365;
+    private static final int MAXIMO_DIAS_SERIE = 731;
+
+    private final EstatisticaOportunidadesRepository estatisticaRepository;
+    private final ContagemDiariaOportunidadesRepository contagemDiariaRepository;
+
+    public EstatisticasRevendaDto estatisticas(Long idRevenda) {
+        long novas = 0, emAtendimento = 0, concluidas = 0, concluidasComDatas = 0, somaDiasConclusao = 0;
+        var usuarios = new ArrayList<EstatisticasDto>();
+
+        for (var linha : estatisticaRepository.findByRevendaIdOrderByUsuarioId(idRevenda)) {
+            novas += linha.getNovas();
+            emAtendimento += linha.getEmAtendimento();
+            concluidas += linha.getConcluidas();
+            concluidasComDatas += linha.getConcluidasComDatas();
+            somaDiasConclusao += linha.getSomaDiasConclusao();
+
+            var usuario = EstatisticasDto.de(linha);
+            if (usuario.getTotal() > 0) {
+                usuarios.add(usuario);
+            }
+        }
+
+        return new EstatisticasRevendaDto(idRevenda,
+                EstatisticasDto.de(null, novas, emAtendimento, concluidas, concluidasComDatas, somaDiasConclusao), usuarios);
+    }
+
+    /**
+     * Um item por dia do intervalo, inclusive os dias sem oportunidades. Sem datas, os últimos 365 dias até hoje.
+     */
+    public SerieDiariaDto serieDiaria(Long idRevenda, LocalDate de, LocalDate ate) {
+        var fim = ate != null ? ate : LocalDate.now(ZONE_ID);
+        var inicio = de != null ? de : fim.minusDays(DIAS_SERIE_PADRAO - 1);
+
+        if (inicio.isAfter(fim)) {
+            throw new ValidacaoException("A data inicial da série deve ser anterior ou igual à data final.");
+        }
+        if (ChronoUnit.DAYS.between(inicio, fim) >= MAXIMO_DIAS_SERIE) {
+            throw new ValidacaoException("A série pode ter no máximo " + MAXIMO_DIAS_SERIE + " dias.");
+        }
+
+        var contagens = contagemDiariaRepository.findByRevendaIdAndDiaBetweenOrderByDia(idRevenda, inicio, fim).iterator();
+        var proxima = contagens.hasNext() ? contagens.next() : null;
+        var dias = new ArrayList<ContagemDiariaDto>();
+
+        for (var dia = inicio; !dia.isAfter(fim); dia = dia.plusDays(1)) {
+            if (proxima != null && proxima.getDia().equals(dia)) {
+                dias.add(new ContagemDiariaDto(dia, proxima.getRecebidas(), proxima.getConcluidas()));
+                proxima = contagens.hasNext() ? contagens.next() : null;
+            } else {
+                dias.add(new ContagemDiariaDto(dia, 0L, 0L));
+            }
+        }
+
+        return new SerieDiariaDto(idRevenda, inicio, fim, dias);
+    }
+}
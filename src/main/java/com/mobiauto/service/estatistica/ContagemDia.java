@@ -0,0 +1,6 @@
+package com.mobiauto.service.estatistica;
+
+import java.time.LocalDate;
+
+public record ContagemDia(LocalDate dia, Long quantidade) {
+}
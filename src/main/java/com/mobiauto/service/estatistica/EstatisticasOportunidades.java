@@ -0,0 +1,159 @@
+package com.mobiauto.service.estatistica;
+
+import com.mobiauto.enumerated.Status;
+import com.mobiauto.model.ContagemDiariaOportunidades;
+import com.mobiauto.model.EstatisticaOportunidades;
+import com.mobiauto.service.evento.OportunidadeAlterada;
+import com.mobiauto.service.evento.OrdemGravacao;
+import com.mobiauto.service.repository.ContagemDiariaOportunidadesRepository;
+import com.mobiauto.service.repository.EstatisticaOportunidadesRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mantém estatisticas_oportunidades e contagens_diarias_oportunidades a partir das alterações de oportunidades, na mesma
+ * transação da escrita. As variações são somadas por revenda e usuário (e por revenda e dia) durante a transação e
+ * gravadas antes do commit, com um UPDATE relativo por linha, em ordem de chave. Quando chegam aqui, as linhas das
+ * revendas envolvidas já estão travadas pelo incremento da versão de alteração (AlteracoesOportunidades, que ouve o
+ * mesmo evento e grava antes, ver OrdemGravacao): as escritas de uma revenda passam pelas estatísticas uma de cada vez,
+ * na mesma ordem da ReconstrucaoEstatisticas, e a linha que ainda não existe é criada por uma transação de cada vez.
+ */
+@Component
+@RequiredArgsConstructor
+public class EstatisticasOportunidades {
+
+    private static final Comparator<Chave> ORDEM = Comparator.comparing(Chave::idRevenda).thenComparing(Chave::idUsuario);
+    private static final Comparator<ChaveDia> ORDEM_DIAS = Comparator.comparing(ChaveDia::idRevenda).thenComparing(ChaveDia::dia);
+
+    private final EstatisticaOportunidadesRepository estatisticaRepository;
+    private final ContagemDiariaOportunidadesRepository contagemDiariaRepository;
+
+    @EventListener
+    public void aoAlterarOportunidade(OportunidadeAlterada evento) {
+        somar(evento.anterior(), -1);
+        somar(evento.atual(), 1);
+    }
+
+    private void somar(OportunidadeAlterada.Situacao situacao, int sinal) {
+        if (situacao == null || situacao.idRevenda() == null) {
+            return;
+        }
+
+        var variacoes = (Variacoes) TransactionSynchronizationManager.getResource(this);
+        if (variacoes == null) {
+            variacoes = new Variacoes();
+            TransactionSynchronizationManager.bindResource(this, variacoes);
+            TransactionSynchronizationManager.registerSynchronization(new GravacaoVariacoes());
+        }
+
+        var idUsuario = situacao.idUsuario() != null ? situacao.idUsuario() : EstatisticaOportunidades.SEM_USUARIO;
+        var variacao = variacoes.porUsuario.computeIfAbsent(new Chave(situacao.idRevenda(), idUsuario), chave -> EstatisticaOportunidades.builder()
+                .revendaId(chave.idRevenda())
+                .usuarioId(chave.idUsuario())
+                .build());
+
+        switch (situacao.status()) {
+            case NOVO -> variacao.setNovas(variacao.getNovas() + sinal);
+            case EM_ATENDIMENTO -> variacao.setEmAtendimento(variacao.getEmAtendimento() + sinal);
+            case CONCLUIDO -> variacao.setConcluidas(variacao.getConcluidas() + sinal);
+        }
+
+        if (situacao.status() == Status.CONCLUIDO && situacao.dataAtribuicao() != null && situacao.dataConclusao() != null) {
+            variacao.setConcluidasComDatas(variacao.getConcluidasComDatas() + sinal);
+            variacao.setSomaDiasConclusao(variacao.getSomaDiasConclusao()
+                    + sinal * ChronoUnit.DAYS.between(situacao.dataAtribuicao(), situacao.dataConclusao()));
+        }
+
+        if (situacao.dataCadastro() != null) {
+            var dia = variacoes.doDia(situacao.idRevenda(), situacao.dataCadastro());
+            dia.setRecebidas(dia.getRecebidas() + sinal);
+        }
+
+        if (situacao.status() == Status.CONCLUIDO && situacao.dataConclusao() != null) {
+            var dia = variacoes.doDia(situacao.idRevenda(), situacao.dataConclusao());
+            dia.setConcluidas(dia.getConcluidas() + sinal);
+        }
+    }
+
+    private void gravar(Variacoes variacoes) {
+        var porUsuario = variacoes.porUsuario.values().stream().filter(variacao -> !vazia(variacao)).toList();
+        var porDia = variacoes.porDia.values().stream().filter(variacao -> !vazia(variacao)).toList();
+
+        for (var variacao : porUsuario) {
+            if (!somarNaLinha(variacao)) {
+                estatisticaRepository.saveAndFlush(variacao);
+            }
+        }
+        for (var variacao : porDia) {
+            if (!somarNoDia(variacao)) {
+                contagemDiariaRepository.saveAndFlush(variacao);
+            }
+        }
+    }
+
+    private boolean somarNaLinha(EstatisticaOportunidades variacao) {
+        return estatisticaRepository.somar(variacao.getRevendaId(), variacao.getUsuarioId(),
+                variacao.getNovas(), variacao.getEmAtendimento(), variacao.getConcluidas(),
+                variacao.getConcluidasComDatas(), variacao.getSomaDiasConclusao()) > 0;
+    }
+
+    private boolean somarNoDia(ContagemDiariaOportunidades variacao) {
+        return contagemDiariaRepository.somar(variacao.getRevendaId(), variacao.getDia(),
+                variacao.getRecebidas(), variacao.getConcluidas()) > 0;
+    }
+
+    private static boolean vazia(EstatisticaOportunidades variacao) {
+        return variacao.getNovas() == 0 && variacao.getEmAtendimento() == 0 && variacao.getConcluidas() == 0
+                && variacao.getConcluidasComDatas() == 0 && variacao.getSomaDiasConclusao() == 0;
+    }
+
+    private static boolean vazia(ContagemDiariaOportunidades variacao) {
+        return variacao.getRecebidas() == 0 && variacao.getConcluidas() == 0;
+    }
+
+    private record Chave(Long idRevenda, Long idUsuario) {
+    }
+
+    private record ChaveDia(Long idRevenda, LocalDate dia) {
+    }
+
+    private static final class Variacoes {
+
+        private final Map<Chave, EstatisticaOportunidades> porUsuario = new TreeMap<>(ORDEM);
+        private final Map<ChaveDia, ContagemDiariaOportunidades> porDia = new TreeMap<>(ORDEM_DIAS);
+
+        private ContagemDiariaOportunidades doDia(Long idRevenda, LocalDate dia) {
+            return porDia.computeIfAbsent(new ChaveDia(idRevenda, dia), chave -> ContagemDiariaOportunidades.builder()
+                    .revendaId(chave.idRevenda())
+                    .dia(chave.dia())
+                    .build());
+        }
+    }
+
+    private final class GravacaoVariacoes implements TransactionSynchronization {
+
+        @Override
+        public int getOrder() {
+            return OrdemGravacao.ESTATISTICAS;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            gravar((Variacoes) TransactionSynchronizationManager.getResource(EstatisticasOportunidades.this));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(EstatisticasOportunidades.this);
+        }
+    }
+}
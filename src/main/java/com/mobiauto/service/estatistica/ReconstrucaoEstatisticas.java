@@ -0,0 +1,113 @@
+package com.mobiauto.service.estatistica;
+
+import com.mobiauto.model.ContagemDiariaOportunidades;
+import com.mobiauto.model.EstatisticaOportunidades;
+import com.mobiauto.service.repository.ContagemDiariaOportunidadesRepository;
+import com.mobiauto.service.repository.EstatisticaOportunidadesRepository;
+import com.mobiauto.service.repository.OportunidadeRepository;
+import com.mobiauto.service.repository.RevendaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Recalcula estatisticas_oportunidades e contagens_diarias_oportunidades a partir das oportunidades, uma transação
+ * por revenda: na subida da aplicação quando uma das tabelas está vazia (carga inicial) e diariamente, corrigindo
+ * qualquer divergência dos totais incrementais. Trava a linha da revenda e, depois, as suas linhas de estatísticas e
+ * contagens, na ordem global de OrdemGravacao: as escritas concorrentes esperam na revenda e somam suas
+ * variações sobre os totais já recalculados.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReconstrucaoEstatisticas {
+
+    private final EstatisticaOportunidadesRepository estatisticaRepository;
+    private final ContagemDiariaOportunidadesRepository contagemDiariaRepository;
+    private final OportunidadeRepository oportunidadeRepository;
+    private final RevendaRepository revendaRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarSeVazia() {
+        if (estatisticaRepository.count() == 0 || contagemDiariaRepository.count() == 0) {
+            reconstruirTodas();
+        }
+    }
+
+    @Scheduled(cron = "${mobiauto.estatisticas.reconstrucao.cron:0 0 4 * * *}", zone = "America/Sao_Paulo")
+    public void reconstruirTodas() {
+        var inicio = System.currentTimeMillis();
+        transactionTemplate.executeWithoutResult(status -> {
+            estatisticaRepository.excluirDeRevendasInexistentes();
+            contagemDiariaRepository.excluirDeRevendasInexistentes();
+        });
+
+        var revendas = revendaRepository.buscarIds();
+        revendas.forEach(this::reconstruir);
+
+        log.info("Estatísticas de {} revendas reconstruídas em {} ms.", revendas.size(), System.currentTimeMillis() - inicio);
+    }
+
+    public void reconstruir(Long idRevenda) {
+        transactionTemplate.executeWithoutResult(status -> {
+            revendaRepository.travarPorId(idRevenda);
+            var linhas = estatisticaRepository.travarDaRevenda(idRevenda).stream()
+                    .collect(Collectors.toMap(EstatisticaOportunidades::getUsuarioId, Function.identity()));
+            var dias = contagemDiariaRepository.travarDaRevenda(idRevenda).stream()
+                    .collect(Collectors.toMap(ContagemDiariaOportunidades::getDia, Function.identity()));
+
+            for (var total : oportunidadeRepository.totalizarPorUsuarioDaRevenda(idRevenda)) {
+                var idUsuario = total.idUsuario() != null ? total.idUsuario() : EstatisticaOportunidades.SEM_USUARIO;
+                var linha = linhas.remove(idUsuario);
+                if (linha == null) {
+                    linha = EstatisticaOportunidades.builder().revendaId(idRevenda).usuarioId(idUsuario).build();
+                }
+                atualizar(linha, total);
+                estatisticaRepository.save(linha);
+            }
+
+            linhas.values().forEach(linha -> atualizar(linha, null));
+
+            var recebidas = new TreeMap<LocalDate, Long>();
+            oportunidadeRepository.contarCadastrosPorDiaDaRevenda(idRevenda).forEach(c -> recebidas.put(c.dia(), c.quantidade()));
+            var concluidas = new TreeMap<LocalDate, Long>();
+            oportunidadeRepository.contarConclusoesPorDiaDaRevenda(idRevenda).forEach(c -> concluidas.put(c.dia(), c.quantidade()));
+
+            var todosOsDias = new TreeSet<>(recebidas.keySet());
+            todosOsDias.addAll(concluidas.keySet());
+            for (var dia : todosOsDias) {
+                var linha = dias.remove(dia);
+                if (linha == null) {
+                    linha = ContagemDiariaOportunidades.builder().revendaId(idRevenda).dia(dia).build();
+                }
+                linha.setRecebidas(recebidas.getOrDefault(dia, 0L));
+                linha.setConcluidas(concluidas.getOrDefault(dia, 0L));
+                contagemDiariaRepository.save(linha);
+            }
+
+            dias.values().forEach(linha -> {
+                linha.setRecebidas(0);
+                linha.setConcluidas(0);
+            });
+        });
+    }
+
+    private static void atualizar(EstatisticaOportunidades linha, TotaisOportunidades total) {
+        linha.setNovas(total != null ? total.novas() : 0);
+        linha.setEmAtendimento(total != null ? total.emAtendimento() : 0);
+        linha.setConcluidas(total != null ? total.concluidas() : 0);
+        linha.setConcluidasComDatas(total != null ? total.concluidasComDatas() : 0);
+        linha.setSomaDiasConclusao(total != null ? total.somaDiasConclusao() : 0);
+    }
+}
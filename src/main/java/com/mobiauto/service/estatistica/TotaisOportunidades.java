@@ -0,0 +1,5 @@
+package com.mobiauto.service.estatistica;
+
+public record TotaisOportunidades(Long idUsuario, Long novas, Long emAtendimento, Long concluidas,
+                                  Long concluidasComDatas, Long somaDiasConclusao) {
+}
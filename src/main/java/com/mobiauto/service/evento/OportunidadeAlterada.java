@@ -0,0 +1,49 @@
+package com.mobiauto.service.evento;
+
+import com.mobiauto.enumerated.Status;
+import com.mobiauto.model.Oportunidade;
+import com.mobiauto.model.Revenda;
+import com.mobiauto.model.Usuario;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Publicado pelo OportunidadeServiceImpl, dentro da transação da escrita, para cada oportunidade cadastrada, editada ou excluída,
+ * e pela FilaAtendimento ao atribuir o assistente das oportunidades recebidas pela fila.
+ * A situação anterior é null no cadastro e a atual é null na exclusão.
+ */
+public record OportunidadeAlterada(Long idOportunidade, Situacao anterior, Situacao atual) {
+
+    public static OportunidadeAlterada cadastro(Oportunidade oportunidade) {
+        return new OportunidadeAlterada(oportunidade.getId(), null, Situacao.de(oportunidade));
+    }
+
+    public static OportunidadeAlterada edicao(Situacao anterior, Oportunidade oportunidade) {
+        return new OportunidadeAlterada(oportunidade.getId(), anterior, Situacao.de(oportunidade));
+    }
+
+    public static OportunidadeAlterada exclusao(Oportunidade oportunidade) {
+        return new OportunidadeAlterada(oportunidade.getId(), Situacao.de(oportunidade), null);
+    }
+
+    public record Situacao(Long idRevenda, Long idUsuario, Status status, LocalDate dataCadastro, LocalDate dataAtribuicao, LocalDate dataConclusao) {
+
+        public static Situacao de(Oportunidade oportunidade) {
+            return new Situacao(
+                    Optional.ofNullable(oportunidade.getLojaAssociada()).map(Revenda::getId).orElse(null),
+                    Optional.ofNullable(oportunidade.getUsuarioAssociado()).map(Usuario::getId).orElse(null),
+                    oportunidade.getStatus(),
+                    oportunidade.getDataCadastro(),
+                    oportunidade.getDataAtribuicao(),
+                    oportunidade.getDataConclusao());
+        }
+
+        /**
+         * Oportunidade associada a um usuário e ainda não concluída, que conta na carga de trabalho dele.
+         */
+        public boolean emAberto() {
+            return idUsuario != null && status != Status.CONCLUIDO;
+        }
+    }
+}
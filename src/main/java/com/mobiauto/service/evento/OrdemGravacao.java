@@ -0,0 +1,30 @@
+package com.mobiauto.service.evento;
+
+import org.springframework.core.Ordered;
+
+/**
+ * Ordem (TransactionSynchronization.getOrder) das gravações feitas antes do commit a partir de OportunidadeAlterada, e
+ * com ela a ordem global das travas no banco. Toda transação que escreve oportunidades trava, nesta ordem:
+ * <ol>
+ *     <li>o advisory lock de atribuição da revenda (TravaAtribuicaoRevenda), quando atribui um assistente;</li>
+ *     <li>usuarios: o assistente escolhido na atribuição e os atendimentos em aberto (ContadorAtendimentosAbertos);</li>
+ *     <li>revendas: o incremento da versão de alteração (AlteracoesOportunidades), em ordem de id, que também serializa
+ *     as estatísticas da revenda;</li>
+ *     <li>estatisticas_oportunidades e, por último, contagens_diarias_oportunidades (EstatisticasOportunidades), em
+ *     ordem de chave.</li>
+ * </ol>
+ * A ReconstrucaoEstatisticas segue a mesma ordem a partir de revendas (RevendaRepository.travarPorId). As travas de
+ * revendas são sempre de UPDATE sem mudar a chave, FOR NO KEY UPDATE no PostgreSQL: um SELECT ... FOR UPDATE
+ * conflitaria com o FOR KEY SHARE que cada insert em oportunidades já tem na revenda pela chave estrangeira, e duas
+ * transações que cadastram na mesma revenda se bloqueariam mutuamente. Uma nova gravação antes do commit deve usar uma
+ * destas constantes, ou uma nova entre elas, conforme as tabelas que trava.
+ */
+public final class OrdemGravacao {
+
+    public static final int USUARIOS = Ordered.LOWEST_PRECEDENCE - 2;
+    public static final int REVENDAS = Ordered.LOWEST_PRECEDENCE - 1;
+    public static final int ESTATISTICAS = Ordered.LOWEST_PRECEDENCE;
+
+    private OrdemGravacao() {
+    }
+}
@@ -0,0 +1,293 @@
+package com.mobiauto.service.evento;
+
+import com.mobiauto.dto.EventoOportunidadeDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transmite por SSE as alterações de oportunidades de cada revenda, depois do commit da escrita. Quem publica apenas
+ * coloca o evento, já serializado, na fila limitada de cada inscrito; o envio pela conexão fica com um pool pequeno de
+ * threads, no máximo uma tarefa por inscrito. O inscrito cuja fila enche é desconectado (o EventSource reconecta e
+ * recarrega a lista), para que um cliente lento nunca segure a escrita nem acumule memória. Uma transação que altera
+ * mais oportunidades de uma revenda do que cabe na fila (cadastro em lote, importação) gera um único evento "recarregar".
+ * Os eventos detalhados são apenas das escritas desta instância; as das demais chegam pelo BarramentoInvalidacao, uma
+ * vez por transação e revenda, como "recarregar".
+ */
+@Slf4j
+@Component
+public class TransmissaoOportunidades {
+
+    public static final String CRIADA = "criada";
+    public static final String ATRIBUIDA = "atribuida";
+    public static final String STATUS_ALTERADO = "status-alterado";
+    public static final String EDITADA = "editada";
+    public static final String EXCLUIDA = "excluida";
+    public static final String RECARREGAR = "recarregar";
+
+    private final ConcurrentMap<Long, Set<Inscricao>> inscricoes = new ConcurrentHashMap<>();
+    private final AtomicInteger quantidadeInscritos = new AtomicInteger();
+    private final ExecutorService envio;
+    private final int capacidadeFila;
+    private final Duration tempoMaximoConexao;
+
+    private final Counter eventos;
+    private final Counter desconectados;
+
+    public TransmissaoOportunidades(MeterRegistry meterRegistry,
+                                    @Value("${mobiauto.eventos.fila:256}") int capacidadeFila,
+                                    @Value("${mobiauto.eventos.threads:4}") int threads,
+                                    @Value("${mobiauto.eventos.conexao:30m}") Duration tempoMaximoConexao) {
+        var numero = new AtomicInteger();
+        this.envio = Executors.newFixedThreadPool(threads, tarefa -> {
+            var thread = new Thread(tarefa, "eventos-sse-" + numero.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.capacidadeFila = capacidadeFila;
+        this.tempoMaximoConexao = tempoMaximoConexao;
+        this.eventos = meterRegistry.counter("mobiauto.eventos.enviados");
+        this.desconectados = meterRegistry.counter("mobiauto.eventos.desconectados");
+        meterRegistry.gauge("mobiauto.eventos.inscritos", quantidadeInscritos);
+    }
+
+    /**
+     * O primeiro evento de toda inscrição é "recarregar": o cliente (re)carrega a lista e não perde as alterações feitas
+     * enquanto estava desconectado.
+     */
+    public SseEmitter inscrever(Long idRevenda) {
+        var emitter = new SseEmitter(tempoMaximoConexao.toMillis());
+        var inscricao = new Inscricao(idRevenda, emitter);
+        inscricao.oferecer(recarregar());
+
+        // dentro do compute: a remoção do conjunto vazio (remover) não pode descartar uma inscrição nova
+        inscricoes.compute(idRevenda, (id, inscritos) -> {
+            var conjunto = inscritos != null ? inscritos : ConcurrentHashMap.<Inscricao>newKeySet();
+            conjunto.add(inscricao);
+            return conjunto;
+        });
+        quantidadeInscritos.incrementAndGet();
+        emitter.onCompletion(() -> remover(inscricao));
+        emitter.onError(erro -> remover(inscricao));
+        emitter.onTimeout(emitter::complete);
+        return emitter;
+    }
+
+    @EventListener
+    @SuppressWarnings("unchecked")
+    public void aoAlterarOportunidade(OportunidadeAlterada evento) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            var porRevenda = new LinkedHashMap<Long, List<Set<ResponseBodyEmitter.DataWithMediaType>>>();
+            adicionar(porRevenda, evento);
+            publicar(porRevenda);
+            return;
+        }
+
+        var porRevenda = (Map<Long, List<Set<ResponseBodyEmitter.DataWithMediaType>>>) TransactionSynchronizationManager.getResource(this);
+        if (porRevenda == null) {
+            porRevenda = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, porRevenda);
+            TransactionSynchronizationManager.registerSynchronization(new PublicacaoAposCommit());
+        }
+        adicionar(porRevenda, evento);
+    }
+
+    /**
+     * Alterações da revenda feitas em outra instância (BarramentoInvalidacao), que não passam pelos eventos desta: os
+     * inscritos recebem apenas "recarregar".
+     */
+    public void recarregar(Long idRevenda) {
+        var inscritos = inscricoes.get(idRevenda);
+        if (inscritos != null) {
+            var recarregar = recarregar();
+            inscritos.forEach(inscricao -> inscricao.oferecer(recarregar));
+        }
+    }
+
+    /**
+     * Comentário periódico: mantém a conexão aberta em proxies e detecta clientes que já foram embora.
+     */
+    @Scheduled(fixedDelayString = "${mobiauto.eventos.pulsacao:25000}", initialDelayString = "${mobiauto.eventos.pulsacao:25000}")
+    public void pulsar() {
+        var pulsacao = SseEmitter.event().comment("pulsacao").build();
+        inscricoes.values().forEach(inscritos -> inscritos.forEach(inscricao -> inscricao.oferecer(pulsacao)));
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        inscricoes.values().forEach(inscritos -> inscritos.forEach(inscricao -> inscricao.emitter.complete()));
+        envio.shutdownNow();
+    }
+
+    private void adicionar(Map<Long, List<Set<ResponseBodyEmitter.DataWithMediaType>>> porRevenda, OportunidadeAlterada evento) {
+        var anterior = evento.anterior();
+        var atual = evento.atual();
+        var idRevendaAnterior = anterior != null ? anterior.idRevenda() : null;
+        var idRevendaAtual = atual != null ? atual.idRevenda() : null;
+
+        if (idRevendaAnterior != null && !Objects.equals(idRevendaAnterior, idRevendaAtual)) {
+            adicionar(porRevenda, idRevendaAnterior, EXCLUIDA, evento.idOportunidade(), anterior);
+        }
+        if (idRevendaAtual != null) {
+            adicionar(porRevenda, idRevendaAtual, tipo(anterior, atual), evento.idOportunidade(), atual);
+        }
+    }
+
+    private void adicionar(Map<Long, List<Set<ResponseBodyEmitter.DataWithMediaType>>> porRevenda, Long idRevenda, String tipo,
+                           Long idOportunidade, OportunidadeAlterada.Situacao situacao) {
+        if (!inscricoes.containsKey(idRevenda)) {
+            return;
+        }
+        var eventosRevenda = porRevenda.computeIfAbsent(idRevenda, id -> new ArrayList<>());
+        // além da capacidade da fila a revenda recebe só "recarregar": não é preciso guardar o restante
+        if (eventosRevenda.size() <= capacidadeFila) {
+            var dados = new EventoOportunidadeDto(idOportunidade, situacao.status(), situacao.idRevenda(), situacao.idUsuario());
+            eventosRevenda.add(SseEmitter.event().name(tipo).data(dados).build());
+        }
+    }
+
+    private static String tipo(OportunidadeAlterada.Situacao anterior, OportunidadeAlterada.Situacao atual) {
+        if (anterior == null || !Objects.equals(anterior.idRevenda(), atual.idRevenda())) {
+            return CRIADA;
+        }
+        if (!Objects.equals(anterior.idUsuario(), atual.idUsuario())) {
+            return ATRIBUIDA;
+        }
+        if (anterior.status() != atual.status()) {
+            return STATUS_ALTERADO;
+        }
+        return EDITADA;
+    }
+
+    private void publicar(Map<Long, List<Set<ResponseBodyEmitter.DataWithMediaType>>> porRevenda) {
+        porRevenda.forEach((idRevenda, eventosRevenda) -> {
+            var inscritos = inscricoes.get(idRevenda);
+            if (inscritos == null) {
+                return;
+            }
+            var envios = eventosRevenda.size() <= capacidadeFila ? eventosRevenda : List.of(recarregar());
+            inscritos.forEach(inscricao -> envios.forEach(inscricao::oferecer));
+        });
+    }
+
+    private static Set<ResponseBodyEmitter.DataWithMediaType> recarregar() {
+        return SseEmitter.event().name(RECARREGAR).data("").build();
+    }
+
+    private boolean remover(Inscricao inscricao) {
+        var inscritos = inscricoes.get(inscricao.idRevenda);
+        if (inscritos == null || !inscritos.remove(inscricao)) {
+            return false;
+        }
+        quantidadeInscritos.decrementAndGet();
+        inscricoes.computeIfPresent(inscricao.idRevenda, (id, restantes) -> restantes.isEmpty() ? null : restantes);
+        return true;
+    }
+
+    private final class Inscricao {
+
+        private final Long idRevenda;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> fila = new ArrayBlockingQueue<>(capacidadeFila);
+        private final AtomicBoolean enviando = new AtomicBoolean();
+
+        private Inscricao(Long idRevenda, SseEmitter emitter) {
+            this.idRevenda = idRevenda;
+            this.emitter = emitter;
+        }
+
+        private void oferecer(Set<ResponseBodyEmitter.DataWithMediaType> evento) {
+            if (!fila.offer(evento)) {
+                desconectar();
+                return;
+            }
+            agendar();
+        }
+
+        private void agendar() {
+            if (enviando.compareAndSet(false, true)) {
+                try {
+                    envio.execute(this::enviar);
+                } catch (RejectedExecutionException e) {
+                    enviando.set(false);
+                }
+            }
+        }
+
+        private void enviar() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> evento;
+                while ((evento = fila.poll()) != null) {
+                    emitter.send(evento);
+                    eventos.increment();
+                }
+            } catch (IOException | IllegalStateException e) {
+                remover(this);
+                return;
+            } finally {
+                enviando.set(false);
+            }
+            if (!fila.isEmpty()) {
+                agendar();
+            }
+        }
+
+        /**
+         * O complete espera um envio em andamento para o mesmo cliente, então fica com o pool, nunca com quem publica.
+         */
+        private void desconectar() {
+            if (!remover(this)) {
+                return;
+            }
+            fila.clear();
+            desconectados.increment();
+            log.debug("Inscrito da revenda {} desconectado por não acompanhar os eventos.", idRevenda);
+            try {
+                envio.execute(emitter::complete);
+            } catch (RejectedExecutionException e) {
+                // pool encerrado: a aplicação está parando
+            }
+        }
+    }
+
+    private final class PublicacaoAposCommit implements TransactionSynchronization {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void afterCommit() {
+            publicar((Map<Long, List<Set<ResponseBodyEmitter.DataWithMediaType>>>) TransactionSynchronizationManager.getResource(TransmissaoOportunidades.this));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(TransmissaoOportunidades.this);
+        }
+    }
+}
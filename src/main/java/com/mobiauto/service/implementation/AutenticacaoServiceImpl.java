@@ -0,0 +1,44 @@
+package com.mobiauto.service.implementation;
+
+import com.mobiauto.dto.LoginDto;
+import com.mobiauto.dto.TokenDto;
+import com.mobiauto.exception.AutenticacaoException;
+import com.mobiauto.security.TokenService;
+import com.mobiauto.service.AutenticacaoService;
+import com.mobiauto.service.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class AutenticacaoServiceImpl implements AutenticacaoService {
+
+    private static final String BEARER = "Bearer";
+
+    private final UsuarioRepository repository;
+    private final TokenService tokenService;
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+
+    @Override
+    public TokenDto login(LoginDto loginDto) {
+        if (loginDto.getEmail() == null || loginDto.getSenha() == null) {
+            throw new AutenticacaoException("Usuário deve fornecer e-mail e senha para autenticação.");
+        }
+
+        var usuario = repository.findByEmailFetchRoles(loginDto.getEmail());
+
+        if (usuario == null || !passwordEncoder.matches(loginDto.getSenha(), usuario.getSenha())) {
+            throw new AutenticacaoException("E-mail ou senha incorretos.");
+        }
+
+        var token = tokenService.emitir(usuario);
+
+        return TokenDto.builder()
+                .token(token.valor())
+                .tipo(BEARER)
+                .expiraEm(token.expiraEm())
+                .build();
+    }
+}
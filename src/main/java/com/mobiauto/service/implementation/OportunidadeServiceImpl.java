@@ -1,8 +1,19 @@
 package com.mobiauto.service.implementation;
 
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mobiauto.dto.AlteracoesDto;
 import com.mobiauto.dto.CadastroOportunidadeDto;
-import com.mobiauto.enumerated.Cargo;
+import com.mobiauto.dto.ErroImportacaoDto;
+import com.mobiauto.dto.EstatisticasRevendaDto;
+import com.mobiauto.dto.FiltroOportunidadeDto;
+import com.mobiauto.dto.OportunidadeResumoDto;
+import com.mobiauto.dto.PaginaDto;
+import com.mobiauto.dto.ResultadoImportacaoDto;
+import com.mobiauto.dto.SerieDiariaDto;
+import com.mobiauto.enumerated.FormatoArquivo;
 import com.mobiauto.enumerated.Status;
 import com.mobiauto.exception.EntidadeNaoEncontradaException;
 import com.mobiauto.exception.ValidacaoException;
@@ -13,15 +24,41 @@ import com.mobiauto.security.UserPrincipal;
 import com.mobiauto.service.OportunidadeService;
 import com.mobiauto.service.RevendaService;
 import com.mobiauto.service.UsuarioService;
+import com.mobiauto.service.atribuicao.EstrategiaAtribuicao;
+import com.mobiauto.service.atribuicao.FilaAtendimento;
+import com.mobiauto.service.atribuicao.IndiceAssistentesOciosos;
+import com.mobiauto.service.estatistica.ConsultaEstatisticas;
+import com.mobiauto.service.evento.OportunidadeAlterada;
+import com.mobiauto.service.evento.TransmissaoOportunidades;
 import com.mobiauto.service.repository.OportunidadeRepository;
+import com.mobiauto.service.sincronizacao.AlteracoesOportunidades;
+import com.mobiauto.service.specification.OportunidadeSpecification;
+import com.mobiauto.util.EscritorCsv;
+import com.mobiauto.util.LeitorCsv;
+import com.mobiauto.util.PaginacaoUtil;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -33,8 +70,37 @@ public class OportunidadeServiceImpl implements OportunidadeService {
 
     private final RevendaService revendaService;
 
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EntityManager entityManager;
+
+    private final IndiceAssistentesOciosos indiceAssistentesOciosos;
+
+    private final EstrategiaAtribuicao estrategiaAtribuicao;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final FilaAtendimento filaAtendimento;
+
+    private final ConsultaEstatisticas consultaEstatisticas;
+
+    private final TransmissaoOportunidades transmissaoOportunidades;
+
+    private final AlteracoesOportunidades alteracoesOportunidades;
+
     private static final ZoneId ZONE_ID = ZoneId.of("America/Sao_Paulo");
 
+    private static final int LIMITE_BUSCA_TEXTUAL = 100;
+    private static final int MAXIMO_TERMOS_BUSCA_TEXTUAL = 8;
+    private static final int LIMITE_CADASTRO_EM_LOTE = 5000;
+    private static final int TAMANHO_LOTE_IMPORTACAO = 1000;
+    private static final int MAXIMO_ERROS_IMPORTACAO = 1000;
+    private static final List<String> COLUNAS_EXPORTACAO = List.of("id", "status", "nomeCliente", "emailCliente", "telefoneCliente",
+            "marcaVeiculo", "modeloVeiculo", "versaoVeiculo", "anoVeiculo", "dataAtribuicao", "dataConclusao", "motivoConclusao",
+            "lojaAssociadaId", "usuarioAssociadoId");
+
     @Override
     public Oportunidade findById(Long id) {
         var oportunidade = repository.findById(id).orElse(null);
@@ -46,58 +112,414 @@ public class OportunidadeServiceImpl implements OportunidadeService {
     }
 
     @Override
-    public List<Oportunidade> findAll() {
-        return repository.findAll();
+    public PaginaDto<OportunidadeResumoDto> findAll(String cursor, Integer limite) {
+        var limiteNormalizado = PaginacaoUtil.normalizarLimite(limite);
+        var resultado = repository.buscarResumos(
+                PaginacaoUtil.decodificarCursor(cursor), PaginacaoUtil.consultarAte(limiteNormalizado));
+        return PaginacaoUtil.montarPagina(resultado, limiteNormalizado, OportunidadeResumoDto::getId);
     }
 
     @Override
     public List<Oportunidade> findAllInRevenda(Long idRevenda) {
-        return repository.findAll().stream()
-                .filter(o -> Objects.equals(
-                        Optional.ofNullable(o.getLojaAssociada()).map(Revenda::getId).orElse(null),
-                        idRevenda
-                ))
-                .collect(Collectors.toList());
+        return repository.findByLojaAssociadaId(idRevenda);
     }
 
     @Override
-    public List<Oportunidade>  buscarOportunidadesDaRevenda( UserPrincipal userPrincipal){
-        var revenda = getUsuarioAutenticado(userPrincipal).getLojaAssociada();
+    public PaginaDto<OportunidadeResumoDto> buscarOportunidadesDaRevenda(UserPrincipal userPrincipal, String cursor, Integer limite) {
+        var idRevenda = userPrincipal.getRevendaId();
 
-        if(revenda == null) {
+        if(idRevenda == null) {
            throw new ValidacaoException("O usuário precisa ter uma loja que seja associada ao mesmo para realizar a busca.");
         }
 
-        return repository.findAll().stream()
-                .filter(o -> Objects.equals(
-                        Optional.ofNullable(o.getLojaAssociada()).map(Revenda::getId).orElse(null),
-                        revenda.getId()
-                ))
-                .collect(Collectors.toList());
+        var limiteNormalizado = PaginacaoUtil.normalizarLimite(limite);
+        var resultado = repository.buscarResumosDaRevenda(
+                idRevenda, PaginacaoUtil.decodificarCursor(cursor), PaginacaoUtil.consultarAte(limiteNormalizado));
+        return PaginacaoUtil.montarPagina(resultado, limiteNormalizado, OportunidadeResumoDto::getId);
+    }
+
+    @Override
+    public PaginaDto<OportunidadeResumoDto> pesquisarOportunidadesDaRevenda(UserPrincipal userPrincipal, FiltroOportunidadeDto filtro, String cursor, Integer limite) {
+        var idRevenda = userPrincipal.getRevendaId();
+
+        if (idRevenda == null) {
+            throw new ValidacaoException("O usuário precisa ter uma loja que seja associada ao mesmo para realizar a busca.");
+        }
+
+        var limiteNormalizado = PaginacaoUtil.normalizarLimite(limite);
+        var specification = OportunidadeSpecification.pesquisar(idRevenda, filtro, PaginacaoUtil.decodificarCursor(cursor));
+        var resultado = repository.pesquisarResumos(specification, limiteNormalizado + 1);
+        return PaginacaoUtil.montarPagina(resultado, limiteNormalizado, OportunidadeResumoDto::getId);
+    }
+
+    @Override
+    public AlteracoesDto buscarAlteracoesDaRevenda(UserPrincipal userPrincipal, String desde, Integer limite) {
+        var idRevenda = userPrincipal.getRevendaId();
+
+        if (idRevenda == null) {
+            throw new ValidacaoException("O usuário precisa ter uma loja que seja associada ao mesmo para realizar a busca.");
+        }
+
+        return alteracoesOportunidades.buscar(idRevenda, desde, PaginacaoUtil.normalizarLimite(limite));
+    }
+
+    @Override
+    public SseEmitter acompanharOportunidadesDaRevenda(UserPrincipal userPrincipal) {
+        var idRevenda = userPrincipal.getRevendaId();
+
+        if (idRevenda == null) {
+            throw new ValidacaoException("O usuário precisa ter uma loja que seja associada ao mesmo para acompanhar as oportunidades.");
+        }
+
+        return transmissaoOportunidades.inscrever(idRevenda);
     }
 
     @Override
+    public List<OportunidadeResumoDto> buscarTextoNaRevenda(UserPrincipal userPrincipal, String texto, Integer limite) {
+        var idRevenda = userPrincipal.getRevendaId();
+
+        if (idRevenda == null) {
+            throw new ValidacaoException("O usuário precisa ter uma loja que seja associada ao mesmo para realizar a busca.");
+        }
+
+        var termos = Arrays.stream(texto == null ? new String[0] : texto.split("[^\\p{L}\\p{N}]+"))
+                .filter(termo -> !termo.isBlank())
+                .limit(MAXIMO_TERMOS_BUSCA_TEXTUAL)
+                .map(termo -> termo.toLowerCase(Locale.ROOT) + ":*")
+                .toList();
+
+        if (termos.isEmpty()) {
+            throw new ValidacaoException("O parâmetro 'q' deve conter ao menos uma letra ou número.");
+        }
+
+        var limiteBusca = limite == null ? PaginacaoUtil.LIMITE_PADRAO : limite;
+        if (limiteBusca < 1 || limiteBusca > LIMITE_BUSCA_TEXTUAL) {
+            throw new ValidacaoException("O parâmetro 'limite' deve estar entre 1 e " + LIMITE_BUSCA_TEXTUAL + ".");
+        }
+
+        return repository.buscarTextoNaRevenda(idRevenda, String.join(" & ", termos), limiteBusca).stream()
+                .map(OportunidadeResumoDto::de)
+                .toList();
+    }
+
+    @Override
+    @Transactional
     public Oportunidade save(CadastroOportunidadeDto cadastroOportunidadeDto) {
+        var lojaAssociada = revendaService.findById(cadastroOportunidadeDto.getLojaAssociadaId());
+        var usuarioAssociado = usuarioService.findById(cadastroOportunidadeDto.getUsuarioAssociadoId());
+
+        var oportunidade = repository.save(montarOportunidade(cadastroOportunidadeDto, lojaAssociada, usuarioAssociado));
+        eventPublisher.publishEvent(OportunidadeAlterada.cadastro(oportunidade));
+        return oportunidade;
+    }
+
+    @Override
+    @Transactional
+    public List<OportunidadeResumoDto> saveAll(List<CadastroOportunidadeDto> cadastrosOportunidades) {
+        if (cadastrosOportunidades == null || cadastrosOportunidades.isEmpty()) {
+            throw new ValidacaoException("Informe ao menos uma oportunidade para cadastrar.");
+        }
+
+        if (cadastrosOportunidades.size() > LIMITE_CADASTRO_EM_LOTE) {
+            throw new ValidacaoException("O lote deve ter no máximo " + LIMITE_CADASTRO_EM_LOTE + " oportunidades.");
+        }
+
+        var revendas = new HashMap<Long, Revenda>();
+        var usuarios = new HashMap<Long, Usuario>();
+        var oportunidades = new ArrayList<Oportunidade>(cadastrosOportunidades.size());
+
+        for (var cadastroOportunidadeDto : cadastrosOportunidades) {
+            var lojaAssociada = revendas.computeIfAbsent(cadastroOportunidadeDto.getLojaAssociadaId(), revendaService::findById);
+            var usuarioAssociado = cadastroOportunidadeDto.getUsuarioAssociadoId() == null ? null
+                    : usuarios.computeIfAbsent(cadastroOportunidadeDto.getUsuarioAssociadoId(), usuarioService::findById);
+
+            oportunidades.add(montarOportunidade(cadastroOportunidadeDto, lojaAssociada, usuarioAssociado));
+        }
+
+        var oportunidadesSalvas = repository.saveAll(oportunidades);
+        oportunidadesSalvas.forEach(oportunidade -> eventPublisher.publishEvent(OportunidadeAlterada.cadastro(oportunidade)));
+
+        return oportunidadesSalvas.stream()
+                .map(OportunidadeResumoDto::de)
+                .toList();
+    }
+
+    @Override
+    public ResultadoImportacaoDto importar(InputStream conteudo, FormatoArquivo formato) {
+        var importacao = new Importacao();
+
+        try (var reader = new BufferedReader(new InputStreamReader(conteudo, StandardCharsets.UTF_8))) {
+            if (formato == FormatoArquivo.CSV) {
+                lerCsv(reader, importacao);
+            } else {
+                lerNdjson(reader, importacao);
+            }
+        } catch (IOException e) {
+            importacao.registrarErro(null, "Leitura do arquivo interrompida: " + e.getMessage());
+        }
+
+        gravarLote(importacao);
+        return importacao.resultado();
+    }
+
+    private void lerCsv(BufferedReader reader, Importacao importacao) throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+
+        var primeiraLinha = reader.readLine();
+        if (primeiraLinha == null) {
+            return;
+        }
+
+        var separador = primeiraLinha.contains(";") && !primeiraLinha.contains(",") ? ';' : ',';
+        var colunas = new LeitorCsv(new StringReader(primeiraLinha), separador).proximoRegistro();
+        var cabecalho = colunas == null ? List.of("") : colunas.stream().map(String::trim).toList();
+        var leitor = new LeitorCsv(reader, separador, 2);
+
+        List<String> registro;
+        while ((registro = leitor.proximoRegistro()) != null) {
+            if (registro.size() == 1 && registro.get(0).isBlank()) {
+                continue;
+            }
+
+            var linha = leitor.getLinhaRegistro();
+            importacao.linhasProcessadas++;
+
+            if (registro.size() != cabecalho.size()) {
+                importacao.registrarErro(linha, "O registro possui " + registro.size() + " colunas, mas o cabeçalho possui " + cabecalho.size() + ".");
+                continue;
+            }
+
+            var valores = new HashMap<String, String>();
+            for (int i = 0; i < cabecalho.size(); i++) {
+                if (!registro.get(i).isBlank()) {
+                    valores.put(cabecalho.get(i), registro.get(i).trim());
+                }
+            }
+
+            CadastroOportunidadeDto cadastro;
+            try {
+                cadastro = objectMapper.convertValue(valores, CadastroOportunidadeDto.class);
+            } catch (IllegalArgumentException e) {
+                importacao.registrarErro(linha, mensagemConversao(e.getCause()));
+                continue;
+            }
+            adicionarAoLote(importacao, linha, cadastro);
+        }
+    }
+
+    private void lerNdjson(BufferedReader reader, Importacao importacao) throws IOException {
+        String texto;
+        long linha = 0;
+
+        while ((texto = reader.readLine()) != null) {
+            linha++;
+            if (texto.isBlank()) {
+                continue;
+            }
+
+            importacao.linhasProcessadas++;
+
+            CadastroOportunidadeDto cadastro;
+            try {
+                cadastro = objectMapper.readValue(texto, CadastroOportunidadeDto.class);
+            } catch (JsonProcessingException e) {
+                importacao.registrarErro(linha, mensagemConversao(e));
+                continue;
+            }
+            adicionarAoLote(importacao, linha, cadastro);
+        }
+    }
+
+    private void adicionarAoLote(Importacao importacao, long linha, CadastroOportunidadeDto cadastro) {
+        var campoAusente = campoObrigatorioAusente(cadastro);
+
+        if (campoAusente != null) {
+            importacao.registrarErro(linha, "O campo obrigatório '" + campoAusente + "' não foi informado.");
+            return;
+        }
+
+        importacao.pendentes.add(new LinhaImportacao(linha, cadastro));
+
+        if (importacao.pendentes.size() >= TAMANHO_LOTE_IMPORTACAO) {
+            gravarLote(importacao);
+        }
+    }
+
+    private void gravarLote(Importacao importacao) {
+        if (importacao.pendentes.isEmpty()) {
+            return;
+        }
+
+        var gravadas = new ArrayList<LinhaImportacao>(importacao.pendentes.size());
+        var recusadas = new HashSet<Long>();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                var revendas = new HashMap<Long, Revenda>();
+                var usuarios = new HashMap<Long, Usuario>();
+                var oportunidades = new ArrayList<Oportunidade>(importacao.pendentes.size());
+
+                for (var pendente : importacao.pendentes) {
+                    var cadastro = pendente.cadastro();
+                    var lojaAssociada = buscarEmCache(revendas, cadastro.getLojaAssociadaId(), revendaService::findById);
+                    var usuarioAssociado = cadastro.getUsuarioAssociadoId() == null ? null
+                            : buscarEmCache(usuarios, cadastro.getUsuarioAssociadoId(), usuarioService::findById);
+
+                    if (lojaAssociada == null) {
+                        importacao.registrarErro(pendente.linha(), "Revenda " + cadastro.getLojaAssociadaId() + " não encontrada.");
+                        recusadas.add(pendente.linha());
+                    } else if (cadastro.getUsuarioAssociadoId() != null && usuarioAssociado == null) {
+                        importacao.registrarErro(pendente.linha(), "Usuário " + cadastro.getUsuarioAssociadoId() + " não encontrado.");
+                        recusadas.add(pendente.linha());
+                    } else {
+                        oportunidades.add(montarOportunidade(cadastro, lojaAssociada, usuarioAssociado));
+                        gravadas.add(pendente);
+                    }
+                }
+
+                repository.saveAll(oportunidades)
+                        .forEach(oportunidade -> eventPublisher.publishEvent(OportunidadeAlterada.cadastro(oportunidade)));
+                entityManager.flush();
+                entityManager.clear();
+            });
+            importacao.importadas += gravadas.size();
+        } catch (RuntimeException e) {
+            // qualquer falha descarta apenas o lote, registrada em todas as linhas dele que ainda não tinham erro, inclusive
+            // as que nem chegaram a ser lidas quando a falha aconteceu
+            var causa = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            importacao.pendentes.stream()
+                    .filter(pendente -> !recusadas.contains(pendente.linha()))
+                    .forEach(pendente -> importacao.registrarErro(pendente.linha(), "Falha ao gravar o lote desta linha: " + causa));
+        } finally {
+            importacao.pendentes.clear();
+        }
+    }
+
+    private static <T> T buscarEmCache(Map<Long, T> cache, Long id, Function<Long, T> busca) {
+        if (!cache.containsKey(id)) {
+            try {
+                cache.put(id, busca.apply(id));
+            } catch (EntidadeNaoEncontradaException e) {
+                cache.put(id, null);
+            }
+        }
+        return cache.get(id);
+    }
+
+    private static String campoObrigatorioAusente(CadastroOportunidadeDto cadastro) {
+        var campos = new LinkedHashMap<String, Object>();
+        campos.put("nomeCliente", cadastro.getNomeCliente());
+        campos.put("emailCliente", cadastro.getEmailCliente());
+        campos.put("telefoneCliente", cadastro.getTelefoneCliente());
+        campos.put("marcaVeiculo", cadastro.getMarcaVeiculo());
+        campos.put("modeloVeiculo", cadastro.getModeloVeiculo());
+        campos.put("versaoVeiculo", cadastro.getVersaoVeiculo());
+        campos.put("anoVeiculo", cadastro.getAnoVeiculo());
+        campos.put("lojaAssociadaId", cadastro.getLojaAssociadaId());
+
+        return campos.entrySet().stream()
+                .filter(campo -> campo.getValue() == null || campo.getValue() instanceof String texto && texto.isBlank())
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static String mensagemConversao(Throwable e) {
+        if (e instanceof JsonMappingException mapping && !mapping.getPath().isEmpty() && mapping.getPath().get(0).getFieldName() != null) {
+            return "Valor inválido para o campo '" + mapping.getPath().get(0).getFieldName() + "'.";
+        }
+        return "Registro em formato inválido.";
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportar(OutputStream saida, FormatoArquivo formato) throws IOException {
+        var writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+
+        try (var resumos = repository.exportarResumos()) {
+            var iterator = resumos.iterator();
+
+            if (formato == FormatoArquivo.CSV) {
+                var escritor = new EscritorCsv(writer, ',');
+                escritor.escreverRegistro(COLUNAS_EXPORTACAO);
+                while (iterator.hasNext()) {
+                    var resumo = iterator.next();
+                    escritor.escreverRegistro(Arrays.asList(resumo.getId(), resumo.getStatus(), resumo.getNomeCliente(),
+                            resumo.getEmailCliente(), resumo.getTelefoneCliente(), resumo.getMarcaVeiculo(), resumo.getModeloVeiculo(),
+                            resumo.getVersaoVeiculo(), resumo.getAnoVeiculo(), resumo.getDataAtribuicao(), resumo.getDataConclusao(),
+                            resumo.getMotivoConclusao(), resumo.getLojaAssociadaId(), resumo.getUsuarioAssociadoId()));
+                }
+            } else {
+                var escritorJson = objectMapper.writerFor(OportunidadeResumoDto.class);
+                while (iterator.hasNext()) {
+                    writer.write(escritorJson.writeValueAsString(iterator.next()));
+                    writer.write('\n');
+                }
+            }
+        }
+
+        writer.flush();
+    }
+
+    private Oportunidade montarOportunidade(CadastroOportunidadeDto cadastroOportunidadeDto, Revenda lojaAssociada, Usuario usuarioAssociado) {
         var oportunidade = new Oportunidade();
         BeanUtils.copyProperties(cadastroOportunidadeDto, oportunidade);
 
-        var lojaAssociada = revendaService.findById(cadastroOportunidadeDto.getLojaAssociadaId());
-
         oportunidade.setLojaAssociada(lojaAssociada);
-
-        var usuarioAssociado = usuarioService.findById(cadastroOportunidadeDto.getUsuarioAssociadoId());
         oportunidade.setUsuarioAssociado(usuarioAssociado);
 
         if (usuarioAssociado != null) {
            usuarioAssociado.setHorarioUltimaOportunidade(new Date());
+           indiceAssistentesOciosos.registrar(usuarioAssociado);
         }
 
         if (oportunidade.getUsuarioAssociado() != null && oportunidade.getDataAtribuicao() == null) {
             oportunidade.setDataAtribuicao(LocalDate.now(ZONE_ID));
         }
 
+        var hoje = LocalDate.now(ZONE_ID);
+        oportunidade.setDataCadastro(oportunidade.getDataAtribuicao() != null && oportunidade.getDataAtribuicao().isBefore(hoje)
+                ? oportunidade.getDataAtribuicao() : hoje);
+
         oportunidade.setStatus(Status.NOVO);
-        return repository.save(oportunidade);
+        return oportunidade;
+    }
+
+    @Override
+    public EstatisticasRevendaDto buscarEstatisticas(Long idRevenda) {
+        revendaService.findById(idRevenda);
+        return consultaEstatisticas.estatisticas(idRevenda);
+    }
+
+    @Override
+    public EstatisticasRevendaDto buscarEstatisticasDaRevenda(UserPrincipal userPrincipal) {
+        var idRevenda = userPrincipal.getRevendaId();
+
+        if (idRevenda == null) {
+            throw new ValidacaoException("O usuário precisa ter uma loja que seja associada ao mesmo para consultar as estatísticas.");
+        }
+
+        return consultaEstatisticas.estatisticas(idRevenda);
+    }
+
+    @Override
+    public SerieDiariaDto buscarSerieDiaria(Long idRevenda, LocalDate de, LocalDate ate) {
+        revendaService.findById(idRevenda);
+        return consultaEstatisticas.serieDiaria(idRevenda, de, ate);
+    }
+
+    @Override
+    public SerieDiariaDto buscarSerieDiariaDaRevenda(UserPrincipal userPrincipal, LocalDate de, LocalDate ate) {
+        var idRevenda = userPrincipal.getRevendaId();
+
+        if (idRevenda == null) {
+            throw new ValidacaoException("O usuário precisa ter uma loja que seja associada ao mesmo para consultar as estatísticas.");
+        }
+
+        return consultaEstatisticas.serieDiaria(idRevenda, de, ate);
     }
 
     @Override
@@ -105,18 +527,17 @@ public class OportunidadeServiceImpl implements OportunidadeService {
         var oportunidade = new Oportunidade();
         BeanUtils.copyProperties(cadastroOportunidadeDto, oportunidade);
 
-        var revenda = getUsuarioAutenticado(userPrincipal).getLojaAssociada();
-
-        if (revenda == null) {
+        if (userPrincipal.getRevendaId() == null) {
             throw new ValidacaoException("O usuário deve ter uma loja que ele seja associada ao mesmo para atender.");
         }
 
+        var revenda = revendaService.findById(userPrincipal.getRevendaId());
+
         oportunidade.setLojaAssociada(revenda);
-        Usuario usuarioOcioso = usuarioService.findAllInRevenda(revenda.getId()).stream().filter(u -> u.getCargo() == Cargo.ASSISTENTE).min(Comparator.comparing(Usuario::getHorarioUltimaOportunidade)).orElse(null);
 
-        if (usuarioOcioso != null) {
-            usuarioOcioso.setHorarioUltimaOportunidade(new Date());
-            oportunidade.setUsuarioAssociado(usuarioOcioso);
+        var idAssistente = estrategiaAtribuicao.atribuir(revenda.getId(), new Date());
+        if (idAssistente != null) {
+            oportunidade.setUsuarioAssociado(usuarioService.findParaAtendimento(idAssistente));
         }
 
         if (oportunidade.getUsuarioAssociado() != null && oportunidade.getDataAtribuicao() == null) {
@@ -124,50 +545,77 @@ public class OportunidadeServiceImpl implements OportunidadeService {
         }
 
         oportunidade.setStatus(Status.NOVO);
-        return repository.save(oportunidade);
+        oportunidade.setDataCadastro(LocalDate.now(ZONE_ID));
+        return transactionTemplate.execute(status -> {
+            var oportunidadeSalva = repository.save(oportunidade);
+            eventPublisher.publishEvent(OportunidadeAlterada.cadastro(oportunidadeSalva));
+            return oportunidadeSalva;
+        });
     }
 
-    private Usuario getUsuarioAutenticado(UserPrincipal userPrincipal) {
-        return usuarioService.findByEmail(userPrincipal.getUsername());
+    @Override
+    public Oportunidade receberParaAtendimento(CadastroOportunidadeDto cadastroOportunidadeDto, UserPrincipal userPrincipal) {
+        var oportunidade = new Oportunidade();
+        BeanUtils.copyProperties(cadastroOportunidadeDto, oportunidade);
+
+        if (userPrincipal.getRevendaId() == null) {
+            throw new ValidacaoException("O usuário deve ter uma loja que ele seja associada ao mesmo para atender.");
+        }
+
+        oportunidade.setLojaAssociada(revendaService.findById(userPrincipal.getRevendaId()));
+        oportunidade.setUsuarioAssociado(null);
+        oportunidade.setDataAtribuicao(null);
+        oportunidade.setDataCadastro(LocalDate.now(ZONE_ID));
+        oportunidade.setStatus(Status.NOVO);
+        oportunidade.setAtribuicaoPendente(true);
+
+        var oportunidadeSalva = transactionTemplate.execute(status -> {
+            var salva = repository.save(oportunidade);
+            eventPublisher.publishEvent(OportunidadeAlterada.cadastro(salva));
+            return salva;
+        });
+
+        filaAtendimento.enfileirar(oportunidadeSalva.getId(), oportunidadeSalva.getLojaAssociada().getId());
+        return oportunidadeSalva;
     }
 
     @Override
+    @Transactional
     public Oportunidade update(Long id, Oportunidade oportunidade) {
 
 
-        var objBanco = findById(id);
+        var objBanco = buscarParaEdicao(id);
         validarAtualizacao(objBanco, oportunidade);
 
-        atualizarDadosOportunidade(objBanco, oportunidade);
-        return repository.save(objBanco);
+        return salvarEdicao(objBanco, oportunidade);
     }
 
     @Override
+    @Transactional
     public Oportunidade editarOportunidadeEmRevenda(Long id, Oportunidade oportunidade, UserPrincipal userPrincipal) {
-        var objBanco = findById(id);
+        var objBanco = buscarParaEdicao(id);
 
         validarAtualizacao(objBanco, oportunidade);
 
-        Usuario usuario = getUsuarioAutenticado(userPrincipal);
-        Long idRevendaUsuario = usuario.getLojaAssociada() != null ? usuario.getLojaAssociada().getId() : null;
-        Long idRevendaOportunidade = findById(id).getLojaAssociada().getId();
+        Long idRevendaUsuario = userPrincipal.getRevendaId();
+        Long idRevendaOportunidade = objBanco.getLojaAssociada() != null ? objBanco.getLojaAssociada().getId() : null;
 
         if (!Objects.equals(idRevendaOportunidade, idRevendaUsuario)) {
             throw new ValidacaoException("O usuário deve ter uma loja que seja associada ao mesmo para editar a oportunidade.");
         }
 
-        atualizarDadosOportunidade(objBanco, oportunidade);
-        return repository.save(objBanco);
+        return salvarEdicao(objBanco, oportunidade);
     }
 
     @Override
+    @Transactional
     public Oportunidade editarOportunidadeAssociada(Long id, Oportunidade oportunidade, UserPrincipal userPrincipal) {
-        var objBanco = findById(id);
+        var objBanco = buscarParaEdicao(id);
 
         validarAtualizacao(objBanco, oportunidade);
 
-        Long idUsuarioAutenticado = getUsuarioAutenticado(userPrincipal).getId();
-        Usuario usuarioOportunidade = findById(id).getUsuarioAssociado();
+        Long idUsuarioAutenticado = userPrincipal.getId();
+        Usuario usuarioOportunidade = objBanco.getUsuarioAssociado();
         Long idUsuarioOportunidade = usuarioOportunidade != null ? usuarioOportunidade.getId() : null;
         Long idUsuarioOportunidadeNovo = oportunidade.getUsuarioAssociado() != null ? oportunidade.getUsuarioAssociado().getId() : null;
 
@@ -179,8 +627,25 @@ public class OportunidadeServiceImpl implements OportunidadeService {
             throw new ValidacaoException("O assistente não pode transferir a oportunidade para outro usuário.");
         }
 
+        return salvarEdicao(objBanco, oportunidade);
+    }
+
+    private Oportunidade salvarEdicao(Oportunidade objBanco, Oportunidade oportunidade) {
+        var situacaoAnterior = OportunidadeAlterada.Situacao.de(objBanco);
+
         atualizarDadosOportunidade(objBanco, oportunidade);
-        return repository.save(objBanco);
+        var oportunidadeSalva = repository.save(objBanco);
+        eventPublisher.publishEvent(OportunidadeAlterada.edicao(situacaoAnterior, oportunidadeSalva));
+        return oportunidadeSalva;
+    }
+
+    private Oportunidade buscarParaEdicao(Long id) {
+        var oportunidade = repository.findParaEdicaoById(id).orElse(null);
+
+        if (oportunidade == null) {
+            throw new EntidadeNaoEncontradaException("Oportunidade não encontrada.");
+        }
+        return oportunidade;
     }
 
     private void validarAtualizacao(Oportunidade objBanco, Oportunidade oportunidade){
@@ -220,10 +685,37 @@ public class OportunidadeServiceImpl implements OportunidadeService {
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
-        if (!repository.existsById(id)) {
+        var oportunidade = repository.findById(id).orElse(null);
+
+        if (oportunidade == null) {
             throw new EntidadeNaoEncontradaException("Oportunidade não encontrada no momento.");
         }
-        repository.deleteById(id);
+        repository.delete(oportunidade);
+        eventPublisher.publishEvent(OportunidadeAlterada.exclusao(oportunidade));
+    }
+
+    private record LinhaImportacao(long linha, CadastroOportunidadeDto cadastro) {
+    }
+
+    private static final class Importacao {
+
+        private final List<LinhaImportacao> pendentes = new ArrayList<>(TAMANHO_LOTE_IMPORTACAO);
+        private final List<ErroImportacaoDto> erros = new ArrayList<>();
+        private long linhasProcessadas;
+        private long importadas;
+        private long comErro;
+
+        private void registrarErro(Long linha, String mensagem) {
+            comErro++;
+            if (erros.size() < MAXIMO_ERROS_IMPORTACAO) {
+                erros.add(new ErroImportacaoDto(linha, mensagem));
+            }
+        }
+
+        private ResultadoImportacaoDto resultado() {
+            return new ResultadoImportacaoDto(linhasProcessadas, importadas, comErro, erros, comErro > erros.size());
+        }
     }
 }
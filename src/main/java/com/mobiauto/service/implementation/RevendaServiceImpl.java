@@ -1,14 +1,17 @@
 package com.mobiauto.service.implementation;
 
+import com.mobiauto.dto.PaginaDto;
 import com.mobiauto.exception.EntidadeNaoEncontradaException;
 import com.mobiauto.exception.ValidacaoException;
 import com.mobiauto.model.Revenda;
 import com.mobiauto.service.RevendaService;
+import com.mobiauto.service.cache.CacheRevendas;
+import com.mobiauto.service.invalidacao.BarramentoInvalidacao;
 import com.mobiauto.service.repository.RevendaRepository;
+import com.mobiauto.util.PaginacaoUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
 import java.util.Objects;
 
 @Service
@@ -17,9 +20,13 @@ public class RevendaServiceImpl implements RevendaService {
 
     private final RevendaRepository repository;
 
+    private final CacheRevendas cacheRevendas;
+
+    private final BarramentoInvalidacao barramentoInvalidacao;
+
     @Override
     public Revenda findById(Long id) {
-        var revendaBuscada = repository.findById(id).orElse(null);
+        var revendaBuscada = cacheRevendas.buscarPorId(id).orElse(null);
         if(revendaBuscada == null){
             throw new EntidadeNaoEncontradaException("Revenda não encontrada.");
         }
@@ -28,12 +35,15 @@ public class RevendaServiceImpl implements RevendaService {
 
     @Override
     public Revenda findByCnpj(String cnpj) {
-        return repository.findByCnpj(cnpj);
+        return cacheRevendas.buscarPorCnpj(cnpj);
     }
 
     @Override
-    public List<Revenda> findAll() {
-        return repository.findAll();
+    public PaginaDto<Revenda> findAll(String cursor, Integer limite) {
+        var limiteNormalizado = PaginacaoUtil.normalizarLimite(limite);
+        var resultado = repository.findByIdGreaterThanOrderByIdAsc(
+                PaginacaoUtil.decodificarCursor(cursor), PaginacaoUtil.consultarAte(limiteNormalizado));
+        return PaginacaoUtil.montarPagina(resultado, limiteNormalizado, Revenda::getId);
     }
 
     @Override
@@ -55,7 +65,9 @@ public class RevendaServiceImpl implements RevendaService {
     public Revenda update(Long id, Revenda revenda) {
         var revendaExistente = validarRevenda(revenda, id);
         atualizarDadosRevenda(revendaExistente, revenda);
-        return repository.save(revendaExistente);
+        var revendaAtualizada = repository.save(revendaExistente);
+        barramentoInvalidacao.revenda(id);
+        return revendaAtualizada;
     }
 
     private Revenda validarRevenda(Revenda revenda, Long id) {
@@ -65,7 +77,7 @@ public class RevendaServiceImpl implements RevendaService {
             throw new ValidacaoException("O CNPJ informado já possui cadastro atualmente.");
         }
 
-        var  revendaExistente = findById(id);
+        var revendaExistente = repository.findById(id).orElse(null);
 
         if (revendaExistente == null) {
             throw new EntidadeNaoEncontradaException("Revenda não encontrada.");
@@ -85,5 +97,6 @@ public class RevendaServiceImpl implements RevendaService {
             throw new EntidadeNaoEncontradaException("Revenda não encontrada.");
         }
         repository.deleteById(id);
+        barramentoInvalidacao.revenda(id);
     }
 }
@@ -1,15 +1,20 @@
 package com.mobiauto.service.implementation;
 
 
+import com.mobiauto.dto.PaginaDto;
+import com.mobiauto.dto.UsuarioResumoDto;
 import com.mobiauto.exception.EntidadeNaoEncontradaException;
 import com.mobiauto.exception.ValidacaoException;
 import com.mobiauto.model.Revenda;
-import com.mobiauto.model.Role;
 import com.mobiauto.model.Usuario;
 import com.mobiauto.security.UserPrincipal;
+import com.mobiauto.service.RevendaService;
 import com.mobiauto.service.UsuarioService;
-import com.mobiauto.service.repository.RoleRepository;
+import com.mobiauto.service.atribuicao.IndiceAssistentesOciosos;
+import com.mobiauto.service.cache.CacheRoles;
+import com.mobiauto.service.invalidacao.BarramentoInvalidacao;
 import com.mobiauto.service.repository.UsuarioRepository;
+import com.mobiauto.util.PaginacaoUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -19,14 +24,16 @@ import java.util.Date;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class UsuarioServiceImpl implements UsuarioService {
 
     private final UsuarioRepository repository;
-    private final RoleRepository roleRepository;
+    private final CacheRoles cacheRoles;
+    private final RevendaService revendaService;
+    private final IndiceAssistentesOciosos indiceAssistentesOciosos;
+    private final BarramentoInvalidacao barramentoInvalidacao;
     private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     @Override
@@ -47,29 +54,34 @@ public class UsuarioServiceImpl implements UsuarioService {
     }
 
     @Override
-    public List<Usuario> findAll() {
-        return repository.findAll();
+    public PaginaDto<UsuarioResumoDto> findAll(String cursor, Integer limite) {
+        var limiteNormalizado = PaginacaoUtil.normalizarLimite(limite);
+        var resultado = repository.buscarResumos(
+                PaginacaoUtil.decodificarCursor(cursor), PaginacaoUtil.consultarAte(limiteNormalizado));
+        return PaginacaoUtil.montarPagina(resultado, limiteNormalizado, UsuarioResumoDto::getId);
     }
 
     @Override
     public List<Usuario> findAllInRevenda(Long idRevenda) {
-        return repository.findAll().stream()
-                .filter(u -> Objects.equals(Optional.ofNullable(u.getLojaAssociada())
-                .map(Revenda::getId).orElse(null), idRevenda))
-                .collect(Collectors.toList());
+        return repository.findByLojaAssociadaId(idRevenda);
     }
 
     @Override
-    public List<Usuario> buscarUsuariosDaRevenda(UserPrincipal userPrincipal) {
-        Revenda revenda = getUsuarioAutenticado(userPrincipal).getLojaAssociada();
-        if (revenda == null) {
+    public Usuario findParaAtendimento(Long id) {
+        return repository.findParaAtendimentoById(id).orElse(null);
+    }
+
+    @Override
+    public PaginaDto<UsuarioResumoDto> buscarUsuariosDaRevenda(UserPrincipal userPrincipal, String cursor, Integer limite) {
+        Long idRevenda = userPrincipal.getRevendaId();
+        if (idRevenda == null) {
             throw new ValidacaoException("O usuário precisa ter uma loja associada para que possa realizar a busca.");
         }
 
-        return repository.findAll().stream()
-                .filter(u -> Objects.equals(Optional.ofNullable(u.getLojaAssociada())
-                        .map(Revenda::getId).orElse(null), revenda.getId()))
-                .collect(Collectors.toList());
+        var limiteNormalizado = PaginacaoUtil.normalizarLimite(limite);
+        var resultado = repository.buscarResumosDaRevenda(
+                idRevenda, PaginacaoUtil.decodificarCursor(cursor), PaginacaoUtil.consultarAte(limiteNormalizado));
+        return PaginacaoUtil.montarPagina(resultado, limiteNormalizado, UsuarioResumoDto::getId);
     }
 
     @Override
@@ -96,28 +108,26 @@ public class UsuarioServiceImpl implements UsuarioService {
         validarCadastro(usuario);
         usuario.setSenha(passwordEncoder.encode(usuario.getSenha()));
         usuario.setHorarioUltimaOportunidade(new Date());
-        usuario.setRoles(obterRolesPorCargo(usuario.getCargo().ordinal()));
-        return repository.save(usuario);
+        usuario.setRoles(cacheRoles.buscarPorCargo(usuario.getCargo()));
+        var usuarioSalvo = repository.save(usuario);
+        indiceAssistentesOciosos.registrar(usuarioSalvo);
+        barramentoInvalidacao.versaoRevenda(idRevenda(usuarioSalvo));
+        return usuarioSalvo;
     }
 
     @Override
     public Usuario cadastrarUsuarioEmRevenda(Usuario usuario, UserPrincipal userPrincipal) {
         validarCadastro(usuario);
 
-        Usuario usuarioAutenticado = getUsuarioAutenticado(userPrincipal);
-        if (usuarioAutenticado.getLojaAssociada() == null) {
+        if (userPrincipal.getRevendaId() == null) {
             throw new ValidacaoException("O usuário precisa ter uma loja que seja associada ao mesmo para realizar o cadastro.");
         }
 
-        usuario.setLojaAssociada(usuarioAutenticado.getLojaAssociada());
+        usuario.setLojaAssociada(revendaService.findById(userPrincipal.getRevendaId()));
 
         return saveUsuario(usuario);
     }
 
-    private Usuario getUsuarioAutenticado(UserPrincipal userPrincipal) {
-        return findByEmail(userPrincipal.getUsername());
-    }
-
     @Override
     public Usuario update(Long id, Usuario usuario) {
         var usuarioExistente = validateUpdate(id, usuario);
@@ -130,11 +140,10 @@ public class UsuarioServiceImpl implements UsuarioService {
 
         var usuarioExistente = validateUpdate(id, usuario);
 
-        Usuario usuarioAutenticado = getUsuarioAutenticado(userPrincipal);
-        Long idRevendaUsuarioAutenticado = usuarioAutenticado.getLojaAssociada().getId();
-        Long idRevendaUsuarioNovo = findById(id).getLojaAssociada().getId();
+        Long idRevendaUsuarioAutenticado = userPrincipal.getRevendaId();
+        Long idRevendaUsuarioExistente = idRevenda(usuarioExistente);
 
-        if (!Objects.equals(idRevendaUsuarioAutenticado, idRevendaUsuarioNovo)) {
+        if (idRevendaUsuarioAutenticado == null || !Objects.equals(idRevendaUsuarioAutenticado, idRevendaUsuarioExistente)) {
             throw new ValidacaoException("O usuário precisa ter uma loja associada correspondente à loja do usuário a ser editado.");
         }
 
@@ -148,7 +157,7 @@ public class UsuarioServiceImpl implements UsuarioService {
             throw new ValidacaoException("O email informado já possui cadastro.");
         }
 
-        var usuarioExistente = findById(id);
+        var usuarioExistente = repository.findParaEdicaoById(id).orElse(null);
 
         if (usuarioExistente == null) {
             throw new EntidadeNaoEncontradaException("Usuário não encontrado.");
@@ -158,16 +167,27 @@ public class UsuarioServiceImpl implements UsuarioService {
     }
 
     private Usuario updateUsuario(Usuario usuarioExistente, Usuario usuario) {
+        var idRevendaAnterior = idRevenda(usuarioExistente);
         atualizarDadosUsuario(usuarioExistente, usuario);
-        return repository.save(usuarioExistente);
+        var usuarioAtualizado = repository.save(usuarioExistente);
+        barramentoInvalidacao.usuario(usuarioExistente.getId());
+        indiceAssistentesOciosos.registrar(usuarioAtualizado);
+        barramentoInvalidacao.versaoRevenda(idRevendaAnterior);
+        barramentoInvalidacao.versaoRevenda(idRevenda(usuarioAtualizado));
+        return usuarioAtualizado;
     }
 
     @Override
     public void delete(Long id) {
-        if (!repository.existsById(id)) {
+        var usuario = repository.findById(id).orElse(null);
+
+        if (usuario == null) {
             throw new EntidadeNaoEncontradaException("Usuário não encontrado.");
         }
-        repository.deleteById(id);
+        repository.delete(usuario);
+        barramentoInvalidacao.usuario(id);
+        indiceAssistentesOciosos.remover(id);
+        barramentoInvalidacao.versaoRevenda(idRevenda(usuario));
     }
 
     private void validarCadastro(Usuario usuario) {
@@ -187,15 +207,14 @@ public class UsuarioServiceImpl implements UsuarioService {
         if (usuarioNovo.getSenha() != null) {
             usuarioExistente.setSenha(passwordEncoder.encode(usuarioNovo.getSenha()));
         }
-        usuarioExistente.setRoles(obterRolesPorCargo(usuarioNovo.getCargo().ordinal()));
+        usuarioExistente.setRoles(cacheRoles.buscarPorCargo(usuarioNovo.getCargo()));
         usuarioExistente.setEmail(usuarioNovo.getEmail());
         usuarioExistente.setNome(usuarioNovo.getNome());
         usuarioExistente.setLojaAssociada(usuarioNovo.getLojaAssociada());
         usuarioExistente.setCargo(usuarioNovo.getCargo());
     }
 
-    private List<Role> obterRolesPorCargo(int cargoOrdinal) {
-        List<Role> roles = roleRepository.findAll();
-        return roles.subList(cargoOrdinal, roles.size());
+    private static Long idRevenda(Usuario usuario) {
+        return Optional.ofNullable(usuario.getLojaAssociada()).map(Revenda::getId).orElse(null);
     }
 }
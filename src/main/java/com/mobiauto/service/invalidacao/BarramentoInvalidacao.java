@@ -0,0 +1,213 @@
+package com.mobiauto.service.invalidacao;
+
+import com.mobiauto.security.CacheCredenciais;
+import com.mobiauto.service.cache.CacheRevendas;
+import com.mobiauto.service.evento.OportunidadeAlterada;
+import com.mobiauto.service.evento.TransmissaoOportunidades;
+import com.mobiauto.service.versao.VersoesRevenda;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Invalida os caches em memória (credenciais, revendas e versões das listagens de cada revenda) nesta instância e, com
+ * NOTIFY do PostgreSQL, nas demais. Dentro de uma transação as chaves são reunidas, sem repetição, e enviadas no fim
+ * dela: o PostgreSQL só entrega o NOTIFY depois do commit e o descarta no rollback. Cada mensagem leva o
+ * identificador da instância de origem, que ignora as próprias mensagens recebidas pelo OuvinteInvalidacao.
+ * Formato: "origem|TIPO:id,TIPO:id,...".
+ */
+@Slf4j
+@Component
+public class BarramentoInvalidacao {
+
+    static final int TAMANHO_MAXIMO_MENSAGEM = 7000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheCredenciais cacheCredenciais;
+    private final CacheRevendas cacheRevendas;
+    private final VersoesRevenda versoesRevenda;
+    private final TransmissaoOportunidades transmissaoOportunidades;
+    private final boolean habilitado;
+    private final String canal;
+    private final String origem = UUID.randomUUID().toString();
+
+    private final Counter enviadas;
+    private final Counter recebidas;
+
+    public BarramentoInvalidacao(JdbcTemplate jdbcTemplate,
+                                 CacheCredenciais cacheCredenciais,
+                                 CacheRevendas cacheRevendas,
+                                 VersoesRevenda versoesRevenda,
+                                 TransmissaoOportunidades transmissaoOportunidades,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${mobiauto.invalidacao.habilitada:true}") boolean habilitado,
+                                 @Value("${mobiauto.invalidacao.canal:mobiauto_invalidacao}") String canal) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheCredenciais = cacheCredenciais;
+        this.cacheRevendas = cacheRevendas;
+        this.versoesRevenda = versoesRevenda;
+        this.transmissaoOportunidades = transmissaoOportunidades;
+        this.habilitado = habilitado;
+        this.canal = canal;
+        this.enviadas = meterRegistry.counter("mobiauto.invalidacao.mensagens", "sentido", "enviada");
+        this.recebidas = meterRegistry.counter("mobiauto.invalidacao.mensagens", "sentido", "recebida");
+    }
+
+    /**
+     * Credenciais em cache do usuário. Deve ser chamado depois da gravação do usuário.
+     */
+    public void usuario(Long id) {
+        cacheCredenciais.invalidar(id);
+        notificar(Tipo.USUARIO, id);
+    }
+
+    /**
+     * Revenda em cache por id e por CNPJ. Deve ser chamado depois da gravação da revenda.
+     */
+    public void revenda(Long id) {
+        cacheRevendas.invalidar(id);
+        notificar(Tipo.REVENDA, id);
+    }
+
+    /**
+     * Versão (ETag) das listagens da revenda; dentro de uma transação o incremento local acontece depois do commit.
+     */
+    public void versaoRevenda(Long idRevenda) {
+        if (idRevenda == null) {
+            return;
+        }
+        versoesRevenda.incrementar(idRevenda);
+        notificar(Tipo.VERSAO_REVENDA, idRevenda);
+    }
+
+    @EventListener
+    public void aoAlterarOportunidade(OportunidadeAlterada evento) {
+        if (evento.anterior() != null) {
+            versaoRevenda(evento.anterior().idRevenda());
+        }
+        if (evento.atual() != null) {
+            versaoRevenda(evento.atual().idRevenda());
+        }
+    }
+
+    /**
+     * Aplica nesta instância uma mensagem recebida do canal. Mensagens da própria instância e chaves desconhecidas
+     * são ignoradas. A versão de uma revenda também faz os inscritos dela nesta instância recarregarem a lista
+     * (TransmissaoOportunidades).
+     */
+    public void receber(String mensagem) {
+        var separador = mensagem.indexOf('|');
+        if (separador < 0 || mensagem.substring(0, separador).equals(origem)) {
+            return;
+        }
+        recebidas.increment();
+
+        for (var chave : mensagem.substring(separador + 1).split(",")) {
+            var partes = chave.split(":", 2);
+            try {
+                var id = Long.valueOf(partes[1]);
+                switch (Tipo.valueOf(partes[0])) {
+                    case USUARIO -> cacheCredenciais.invalidar(id);
+                    case REVENDA -> cacheRevendas.invalidar(id);
+                    case VERSAO_REVENDA -> {
+                        versoesRevenda.incrementar(id);
+                        transmissaoOportunidades.recarregar(id);
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("Chave de invalidação desconhecida: {}", chave);
+            }
+        }
+    }
+
+    /**
+     * Usado quando mensagens podem ter sido perdidas (reconexão do OuvinteInvalidacao).
+     */
+    public void invalidarTudo() {
+        cacheCredenciais.invalidarTudo();
+        cacheRevendas.invalidarTudo();
+        versoesRevenda.incrementarTodas();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void notificar(Tipo tipo, Long id) {
+        if (!habilitado || id == null) {
+            return;
+        }
+        var chave = tipo.name() + ":" + id;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                enviar(Set.of(chave));
+            } catch (DataAccessException e) {
+                // a escrita já foi confirmada: nas demais instâncias a chave expira pelo prazo do cache
+                log.warn("Não foi possível notificar a invalidação {}", chave, e);
+            }
+            return;
+        }
+
+        var chaves = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (chaves == null) {
+            chaves = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, chaves);
+            TransactionSynchronizationManager.registerSynchronization(new EnvioNoCommit());
+        }
+        chaves.add(chave);
+    }
+
+    private void enviar(Set<String> chaves) {
+        var mensagens = new ArrayList<String>();
+        var mensagem = new StringBuilder(origem).append('|');
+        var prefixo = mensagem.length();
+
+        for (var chave : chaves) {
+            if (mensagem.length() > prefixo && mensagem.length() + 1 + chave.length() > TAMANHO_MAXIMO_MENSAGEM) {
+                mensagens.add(mensagem.toString());
+                mensagem.setLength(prefixo);
+            }
+            if (mensagem.length() > prefixo) {
+                mensagem.append(',');
+            }
+            mensagem.append(chave);
+        }
+        mensagens.add(mensagem.toString());
+
+        for (var texto : mensagens) {
+            jdbcTemplate.query("select pg_notify(?, ?)", (RowCallbackHandler) resultado -> {}, canal, texto);
+        }
+        enviadas.increment(mensagens.size());
+    }
+
+    private enum Tipo {
+        USUARIO, REVENDA, VERSAO_REVENDA
+    }
+
+    private final class EnvioNoCommit implements TransactionSynchronization {
+
+        /**
+         * Ainda dentro da transação: o PostgreSQL entrega as mensagens somente se ela for confirmada.
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void beforeCommit(boolean readOnly) {
+            enviar((Set<String>) TransactionSynchronizationManager.getResource(BarramentoInvalidacao.this));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(BarramentoInvalidacao.this);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.mobiauto.service.invalidacao;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Escuta (LISTEN) o canal do BarramentoInvalidacao em uma conexão própria, fora do pool, e aplica nesta instância as
+ * mensagens das demais. Se a conexão cair, reconecta depois de uma espera e invalida todos os caches, já que mensagens
+ * enviadas enquanto estava desconectada foram perdidas.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "mobiauto.invalidacao.habilitada", havingValue = "true", matchIfMissing = true)
+public class OuvinteInvalidacao {
+
+    private static final int ESPERA_NOTIFICACOES_MS = 1000;
+
+    private final BarramentoInvalidacao barramentoInvalidacao;
+    private final DataSourceProperties dataSourceProperties;
+    private final String canal;
+    private final Duration esperaReconexao;
+
+    private volatile boolean ativo;
+    private volatile Thread thread;
+
+    public OuvinteInvalidacao(BarramentoInvalidacao barramentoInvalidacao,
+                              DataSourceProperties dataSourceProperties,
+                              @Value("${mobiauto.invalidacao.canal:mobiauto_invalidacao}") String canal,
+                              @Value("${mobiauto.invalidacao.reconexao:5s}") Duration esperaReconexao) {
+        this.barramentoInvalidacao = barramentoInvalidacao;
+        this.dataSourceProperties = dataSourceProperties;
+        this.canal = canal;
+        this.esperaReconexao = esperaReconexao;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        ativo = true;
+        thread = new Thread(this::escutar, "invalidacao-listen");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        ativo = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void escutar() {
+        var reconexao = false;
+
+        while (ativo) {
+            try (var conexao = conectar()) {
+                if (reconexao) {
+                    barramentoInvalidacao.invalidarTudo();
+                }
+                reconexao = true;
+                receber(conexao.unwrap(PGConnection.class));
+            } catch (SQLException e) {
+                if (!ativo) {
+                    return;
+                }
+                log.warn("Conexão do canal de invalidação {} perdida; nova tentativa em {}", canal, esperaReconexao, e);
+                try {
+                    Thread.sleep(esperaReconexao.toMillis());
+                } catch (InterruptedException interrompida) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receber(PGConnection conexao) throws SQLException {
+        while (ativo) {
+            var notificacoes = conexao.getNotifications(ESPERA_NOTIFICACOES_MS);
+            if (notificacoes == null) {
+                continue;
+            }
+            for (var notificacao : notificacoes) {
+                try {
+                    barramentoInvalidacao.receber(notificacao.getParameter());
+                } catch (RuntimeException e) {
+                    log.warn("Falha ao aplicar a invalidação {}", notificacao.getParameter(), e);
+                }
+            }
+        }
+    }
+
+    private Connection conectar() throws SQLException {
+        var conexao = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+        try (var statement = conexao.createStatement()) {
+            // o nome do canal é configuração da aplicação, não entrada do usuário
+            statement.execute("LISTEN \"" + canal + "\"");
+        } catch (SQLException e) {
+            conexao.close();
+            throw e;
+        }
+        return conexao;
+    }
+}
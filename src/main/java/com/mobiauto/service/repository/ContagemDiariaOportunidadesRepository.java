@@ -0,0 +1,32 @@
+package com.mobiauto.service.repository;
+
+import com.mobiauto.model.ContagemDiariaOportunidades;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ContagemDiariaOportunidadesRepository extends JpaRepository<ContagemDiariaOportunidades, Long> {
+
+    List<ContagemDiariaOportunidades> findByRevendaIdAndDiaBetweenOrderByDia(Long revendaId, LocalDate de, LocalDate ate);
+
+    @Modifying
+    @Query("""
+            UPDATE ContagemDiariaOportunidades c SET c.recebidas = c.recebidas + :recebidas, c.concluidas = c.concluidas + :concluidas
+            WHERE c.revendaId = :revendaId AND c.dia = :dia""")
+    int somar(@Param("revendaId") Long revendaId, @Param("dia") LocalDate dia,
+              @Param("recebidas") long recebidas, @Param("concluidas") long concluidas);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ContagemDiariaOportunidades c WHERE c.revendaId = :revendaId ORDER BY c.dia")
+    List<ContagemDiariaOportunidades> travarDaRevenda(@Param("revendaId") Long revendaId);
+
+    @Modifying
+    @Query("DELETE FROM ContagemDiariaOportunidades c WHERE c.revendaId NOT IN (SELECT r.id FROM Revenda r)")
+    int excluirDeRevendasInexistentes();
+}
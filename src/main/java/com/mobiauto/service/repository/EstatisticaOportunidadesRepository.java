@@ -0,0 +1,37 @@
+package com.mobiauto.service.repository;
+
+import com.mobiauto.model.EstatisticaOportunidades;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface EstatisticaOportunidadesRepository extends JpaRepository<EstatisticaOportunidades, Long> {
+
+    List<EstatisticaOportunidades> findByRevendaIdOrderByUsuarioId(Long revendaId);
+
+    @Modifying
+    @Query("""
+            UPDATE EstatisticaOportunidades e SET
+                e.novas = e.novas + :novas,
+                e.emAtendimento = e.emAtendimento + :emAtendimento,
+                e.concluidas = e.concluidas + :concluidas,
+                e.concluidasComDatas = e.concluidasComDatas + :concluidasComDatas,
+                e.somaDiasConclusao = e.somaDiasConclusao + :somaDiasConclusao
+            WHERE e.revendaId = :revendaId AND e.usuarioId = :usuarioId""")
+    int somar(@Param("revendaId") Long revendaId, @Param("usuarioId") Long usuarioId,
+              @Param("novas") long novas, @Param("emAtendimento") long emAtendimento, @Param("concluidas") long concluidas,
+              @Param("concluidasComDatas") long concluidasComDatas, @Param("somaDiasConclusao") long somaDiasConclusao);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM EstatisticaOportunidades e WHERE e.revendaId = :revendaId ORDER BY e.usuarioId")
+    List<EstatisticaOportunidades> travarDaRevenda(@Param("revendaId") Long revendaId);
+
+    @Modifying
+    @Query("DELETE FROM EstatisticaOportunidades e WHERE e.revendaId NOT IN (SELECT r.id FROM Revenda r)")
+    int excluirDeRevendasInexistentes();
+}
@@ -0,0 +1,26 @@
+package com.mobiauto.service.repository;
+
+import com.mobiauto.model.OportunidadeExcluida;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OportunidadeExcluidaRepository extends JpaRepository<OportunidadeExcluida, Long> {
+
+    @Query("""
+            SELECT e FROM OportunidadeExcluida e
+            WHERE e.revendaId = :idRevenda AND e.versaoAlteracao >= :versao
+              AND (e.versaoAlteracao > :versao OR e.oportunidadeId > :aposId)
+            ORDER BY e.versaoAlteracao, e.oportunidadeId""")
+    List<OportunidadeExcluida> buscarDaRevenda(@Param("idRevenda") Long idRevenda, @Param("versao") Long versao,
+                                               @Param("aposId") Long aposId, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM OportunidadeExcluida e WHERE e.revendaId = :idRevenda AND e.oportunidadeId IN :ids")
+    int removerDaRevenda(@Param("idRevenda") Long idRevenda, @Param("ids") Collection<Long> ids);
+}
@@ -1,6 +1,94 @@
 package com.mobiauto.service.repository;
 
+import com.mobiauto.dto.OportunidadeResumoDto;
 import com.mobiauto.model.Oportunidade;
+import com.mobiauto.service.atribuicao.OportunidadePendente;
+import com.mobiauto.service.estatistica.ContagemDia;
+import com.mobiauto.service.estatistica.TotaisOportunidades;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface OportunidadeRepository extends JpaRepository<Oportunidade, Long> {}
\ No newline at end of file
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface OportunidadeRepository extends JpaRepository<Oportunidade, Long>, JpaSpecificationExecutor<Oportunidade>, OportunidadeRepositoryCustom {
+
+    String SELECAO_RESUMO = """
+            SELECT new com.mobiauto.dto.OportunidadeResumoDto(
+                o.id, o.status, o.nomeCliente, o.emailCliente, o.telefoneCliente,
+                o.marcaVeiculo, o.modeloVeiculo, o.versaoVeiculo, o.anoVeiculo,
+                o.dataAtribuicao, o.dataConclusao, o.motivoConclusao,
+                o.lojaAssociada.id, o.usuarioAssociado.id)
+            FROM Oportunidade o
+            """;
+
+    List<Oportunidade> findByLojaAssociadaId(Long idRevenda);
+
+    @EntityGraph("Oportunidade.edicao")
+    Optional<Oportunidade> findParaEdicaoById(Long id);
+
+    @Query(SELECAO_RESUMO + "WHERE o.id > :aposId ORDER BY o.id")
+    List<OportunidadeResumoDto> buscarResumos(@Param("aposId") Long aposId, Limit limit);
+
+    @Query(SELECAO_RESUMO + "WHERE o.lojaAssociada.id = :idRevenda AND o.id > :aposId ORDER BY o.id")
+    List<OportunidadeResumoDto> buscarResumosDaRevenda(@Param("idRevenda") Long idRevenda, @Param("aposId") Long aposId, Limit limit);
+
+    @Query(SELECAO_RESUMO + "ORDER BY o.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<OportunidadeResumoDto> exportarResumos();
+
+    @Query("""
+            SELECT new com.mobiauto.service.estatistica.TotaisOportunidades(o.usuarioAssociado.id,
+                sum(CASE WHEN o.status = com.mobiauto.enumerated.Status.NOVO THEN 1 ELSE 0 END),
+                sum(CASE WHEN o.status = com.mobiauto.enumerated.Status.EM_ATENDIMENTO THEN 1 ELSE 0 END),
+                sum(CASE WHEN o.status = com.mobiauto.enumerated.Status.CONCLUIDO THEN 1 ELSE 0 END),
+                sum(CASE WHEN o.status = com.mobiauto.enumerated.Status.CONCLUIDO AND o.dataAtribuicao IS NOT NULL AND o.dataConclusao IS NOT NULL THEN 1 ELSE 0 END),
+                sum(CASE WHEN o.status = com.mobiauto.enumerated.Status.CONCLUIDO AND o.dataAtribuicao IS NOT NULL AND o.dataConclusao IS NOT NULL THEN (o.dataConclusao - o.dataAtribuicao) BY DAY ELSE 0 END))
+            FROM Oportunidade o WHERE o.lojaAssociada.id = :idRevenda GROUP BY o.usuarioAssociado.id""")
+    List<TotaisOportunidades> totalizarPorUsuarioDaRevenda(@Param("idRevenda") Long idRevenda);
+
+    @Query("SELECT new com.mobiauto.service.estatistica.ContagemDia(o.dataCadastro, count(o)) FROM Oportunidade o WHERE o.lojaAssociada.id = :idRevenda AND o.dataCadastro IS NOT NULL GROUP BY o.dataCadastro")
+    List<ContagemDia> contarCadastrosPorDiaDaRevenda(@Param("idRevenda") Long idRevenda);
+
+    @Query("SELECT new com.mobiauto.service.estatistica.ContagemDia(o.dataConclusao, count(o)) FROM Oportunidade o WHERE o.lojaAssociada.id = :idRevenda AND o.status = com.mobiauto.enumerated.Status.CONCLUIDO AND o.dataConclusao IS NOT NULL GROUP BY o.dataConclusao")
+    List<ContagemDia> contarConclusoesPorDiaDaRevenda(@Param("idRevenda") Long idRevenda);
+
+    @Modifying
+    @Query("UPDATE Oportunidade o SET o.versaoAlteracao = (SELECT r.versaoAlteracoes FROM Revenda r WHERE r.id = :idRevenda) WHERE o.id IN :ids")
+    int registrarVersaoAlteracao(@Param("idRevenda") Long idRevenda, @Param("ids") Collection<Long> ids);
+
+    @Query("""
+            SELECT o FROM Oportunidade o
+            WHERE o.lojaAssociada.id = :idRevenda AND o.versaoAlteracao >= :versao
+              AND (o.versaoAlteracao > :versao OR o.id > :aposId)
+            ORDER BY o.versaoAlteracao, o.id""")
+    List<Oportunidade> buscarAlteradasDaRevenda(@Param("idRevenda") Long idRevenda, @Param("versao") Long versao,
+                                                @Param("aposId") Long aposId, Limit limit);
+
+    @Query("SELECT new com.mobiauto.service.atribuicao.OportunidadePendente(o.id, o.lojaAssociada.id) FROM Oportunidade o WHERE o.atribuicaoPendente = true ORDER BY o.id")
+    List<OportunidadePendente> buscarPendentesDeAtribuicao(Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM Oportunidade o WHERE o.id IN :ids AND o.atribuicaoPendente = true ORDER BY o.id")
+    List<Oportunidade> travarPendentesDeAtribuicao(@Param("ids") Collection<Long> ids);
+
+    @Query(value = """
+            SELECT o.* FROM oportunidades o
+            WHERE o.loja_associada_id = :idRevenda AND o.busca @@ to_tsquery('simple', :consulta)
+            ORDER BY ts_rank(o.busca, to_tsquery('simple', :consulta)) DESC, o.id
+            LIMIT :limite""", nativeQuery = true)
+    List<Oportunidade> buscarTextoNaRevenda(@Param("idRevenda") Long idRevenda, @Param("consulta") String consulta, @Param("limite") int limite);
+}
@@ -0,0 +1,12 @@
+package com.mobiauto.service.repository;
+
+import com.mobiauto.dto.OportunidadeResumoDto;
+import com.mobiauto.model.Oportunidade;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface OportunidadeRepositoryCustom {
+
+    List<OportunidadeResumoDto> pesquisarResumos(Specification<Oportunidade> specification, int limite);
+}
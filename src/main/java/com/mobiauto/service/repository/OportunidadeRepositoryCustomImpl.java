@@ -0,0 +1,37 @@
+package com.mobiauto.service.repository;
+
+import com.mobiauto.dto.OportunidadeResumoDto;
+import com.mobiauto.model.Oportunidade;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Executa a {@link Specification} selecionando apenas as colunas do resumo, sem carregar as entidades associadas.
+ */
+@RequiredArgsConstructor
+public class OportunidadeRepositoryCustomImpl implements OportunidadeRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<OportunidadeResumoDto> pesquisarResumos(Specification<Oportunidade> specification, int limite) {
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createQuery(OportunidadeResumoDto.class);
+        var root = query.from(Oportunidade.class);
+
+        query.select(cb.construct(OportunidadeResumoDto.class,
+                        root.get("id"), root.get("status"), root.get("nomeCliente"), root.get("emailCliente"), root.get("telefoneCliente"),
+                        root.get("marcaVeiculo"), root.get("modeloVeiculo"), root.get("versaoVeiculo"), root.get("anoVeiculo"),
+                        root.get("dataAtribuicao"), root.get("dataConclusao"), root.get("motivoConclusao"),
+                        root.get("lojaAssociada").get("id"), root.get("usuarioAssociado").get("id")))
+                .where(specification.toPredicate(root, query, cb))
+                .orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+}
@@ -1,8 +1,38 @@
 package com.mobiauto.service.repository;
 
 import com.mobiauto.model.Revenda;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface RevendaRepository extends JpaRepository<Revenda, Long> {
     Revenda findByCnpj(String cnpj);
+
+    List<Revenda> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("SELECT r.id FROM Revenda r ORDER BY r.id")
+    List<Long> buscarIds();
+
+    /**
+     * Trava a linha da revenda até o fim da transação sem alterá-la. É um UPDATE, e não um SELECT ... FOR UPDATE: no
+     * PostgreSQL ele trava em FOR NO KEY UPDATE, que não conflita com o FOR KEY SHARE da chave estrangeira dos inserts
+     * em oportunidades, mas conflita com o incremento da versão de alteração das escritas concorrentes.
+     */
+    @Modifying
+    @Query("UPDATE Revenda r SET r.versaoAlteracoes = r.versaoAlteracoes WHERE r.id = :id")
+    int travarPorId(@Param("id") Long id);
+
+    /**
+     * Trava a linha da revenda até o fim da transação: as versões de alteração de uma revenda são commitadas em ordem.
+     */
+    @Modifying
+    @Query("UPDATE Revenda r SET r.versaoAlteracoes = r.versaoAlteracoes + 1 WHERE r.id = :id")
+    int incrementarVersaoAlteracoes(@Param("id") Long id);
+
+    @Query("SELECT r.versaoAlteracoes FROM Revenda r WHERE r.id = :id")
+    Long buscarVersaoAlteracoes(@Param("id") Long id);
 }
\ No newline at end of file
@@ -1,13 +1,86 @@
 package com.mobiauto.service.repository;
 
+import com.mobiauto.dto.UsuarioResumoDto;
+import com.mobiauto.enumerated.Cargo;
 import com.mobiauto.model.Usuario;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+
+    String SELECAO_RESUMO = """
+            SELECT new com.mobiauto.dto.UsuarioResumoDto(
+                u.id, u.nome, u.email, u.cargo, u.lojaAssociada.id, u.horarioUltimaOportunidade)
+            FROM Usuario u
+            """;
+
+    String ATRIBUICAO_ASSISTENTE = """
+            UPDATE usuarios SET horario_ultima_oportunidade = :horario
+            WHERE id = (SELECT u.id FROM usuarios u
+                        WHERE u.loja_associada_id = :idRevenda AND u.cargo = :cargo
+                        ORDER BY""";
+
+    String ORDEM_MAIS_OCIOSO = " u.horario_ultima_oportunidade NULLS FIRST, u.id LIMIT 1 FOR UPDATE";
+
+    String ORDEM_MENOS_CARREGADO = " u.atendimentos_abertos," + ORDEM_MAIS_OCIOSO;
+
+    /**
+     * Primeira chave dos advisory locks de atribuição (forma de duas chaves int). A segunda é o id da revenda; ids acima
+     * do limite de int são reduzidos pelo resto e, no pior caso, duas revendas compartilham a trava.
+     */
+    int NAMESPACE_TRAVA_ATRIBUICAO = 0x4D41_0001;
+
     Usuario findByEmail(String email);
 
-    @Query("SELECT u FROM Usuario u JOIN FETCH u.roles WHERE u.email = :email")
+    List<Usuario> findByLojaAssociadaId(Long idRevenda);
+
+    List<Usuario> findByLojaAssociadaIdAndCargo(Long idRevenda, Cargo cargo);
+
+    @EntityGraph("Usuario.roles")
+    Optional<Usuario> findParaAtendimentoById(Long id);
+
+    @EntityGraph("Usuario.edicao")
+    Optional<Usuario> findParaEdicaoById(Long id);
+
+    @Query(SELECAO_RESUMO + "WHERE u.id > :aposId ORDER BY u.id")
+    List<UsuarioResumoDto> buscarResumos(@Param("aposId") Long aposId, Limit limit);
+
+    @Query(SELECAO_RESUMO + "WHERE u.lojaAssociada.id = :idRevenda AND u.id > :aposId ORDER BY u.id")
+    List<UsuarioResumoDto> buscarResumosDaRevenda(@Param("idRevenda") Long idRevenda, @Param("aposId") Long aposId, Limit limit);
+
+    @Modifying
+    @Query("UPDATE Usuario u SET u.horarioUltimaOportunidade = :horario WHERE u.id = :id")
+    int atualizarHorarioUltimaOportunidade(@Param("id") Long id, @Param("horario") Date horario);
+
+    @Query(value = "SELECT pg_try_advisory_xact_lock(" + NAMESPACE_TRAVA_ATRIBUICAO + ", CAST(:idRevenda % 2147483647 AS int))",
+            nativeQuery = true)
+    boolean tentarTravarAtribuicao(@Param("idRevenda") Long idRevenda);
+
+    @Query(value = ATRIBUICAO_ASSISTENTE + ORDEM_MAIS_OCIOSO + " SKIP LOCKED) RETURNING id", nativeQuery = true)
+    Optional<Long> atribuirAssistenteMaisOciosoLivre(@Param("idRevenda") Long idRevenda, @Param("cargo") int cargo, @Param("horario") Date horario);
+
+    @Query(value = ATRIBUICAO_ASSISTENTE + ORDEM_MAIS_OCIOSO + ") RETURNING id", nativeQuery = true)
+    Optional<Long> atribuirAssistenteMaisOcioso(@Param("idRevenda") Long idRevenda, @Param("cargo") int cargo, @Param("horario") Date horario);
+
+    @Query(value = ATRIBUICAO_ASSISTENTE + ORDEM_MENOS_CARREGADO + " SKIP LOCKED) RETURNING id", nativeQuery = true)
+    Optional<Long> atribuirAssistenteMenosCarregadoLivre(@Param("idRevenda") Long idRevenda, @Param("cargo") int cargo, @Param("horario") Date horario);
+
+    @Query(value = ATRIBUICAO_ASSISTENTE + ORDEM_MENOS_CARREGADO + ") RETURNING id", nativeQuery = true)
+    Optional<Long> atribuirAssistenteMenosCarregado(@Param("idRevenda") Long idRevenda, @Param("cargo") int cargo, @Param("horario") Date horario);
+
+    @Modifying
+    @Query("UPDATE Usuario u SET u.atendimentosAbertos = u.atendimentosAbertos + :variacao WHERE u.id = :id")
+    int somarAtendimentosAbertos(@Param("id") Long id, @Param("variacao") int variacao);
+
+    @EntityGraph("Usuario.roles")
+    @Query("SELECT u FROM Usuario u WHERE u.email = :email")
     Usuario findByEmailFetchRoles(@Param("email") String email);
 }
\ No newline at end of file
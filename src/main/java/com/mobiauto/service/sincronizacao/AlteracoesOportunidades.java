@@ -0,0 +1,199 @@
+package com.mobiauto.service.sincronizacao;
+
+import com.mobiauto.dto.AlteracoesDto;
+import com.mobiauto.dto.OportunidadeResumoDto;
+import com.mobiauto.exception.ValidacaoException;
+import com.mobiauto.model.OportunidadeExcluida;
+import com.mobiauto.service.evento.OportunidadeAlterada;
+import com.mobiauto.service.evento.OrdemGravacao;
+import com.mobiauto.service.repository.OportunidadeExcluidaRepository;
+import com.mobiauto.service.repository.OportunidadeRepository;
+import com.mobiauto.service.repository.RevendaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Sincronização incremental das oportunidades de cada revenda (/oportunidades/revenda/alteracoes). Toda transação que
+ * altera oportunidades incrementa revendas.versao_alteracoes uma vez por revenda, antes do commit, e grava essa versão
+ * nas oportunidades alteradas; as que saíram da revenda (excluídas ou transferidas) ficam em oportunidades_excluidas
+ * com a mesma versão. O UPDATE da revenda a mantém travada até o commit, então as versões de uma revenda se tornam
+ * visíveis em ordem e o cursor (versão, id) da última alteração entregue nunca pula uma alteração.
+ */
+@Component
+@RequiredArgsConstructor
+public class AlteracoesOportunidades {
+
+    private static final String PREFIXO_CURSOR = "alteracao:";
+
+    private final OportunidadeRepository oportunidadeRepository;
+    private final OportunidadeExcluidaRepository oportunidadeExcluidaRepository;
+    private final RevendaRepository revendaRepository;
+
+    @EventListener
+    public void aoAlterarOportunidade(OportunidadeAlterada evento) {
+        var idAnterior = evento.anterior() != null ? evento.anterior().idRevenda() : null;
+        var idAtual = evento.atual() != null ? evento.atual().idRevenda() : null;
+
+        if (idAnterior != null && !idAnterior.equals(idAtual)) {
+            alteracoes(idAnterior).excluir(evento.idOportunidade());
+        }
+        if (idAtual != null) {
+            var alteracoes = alteracoes(idAtual);
+            alteracoes.alterar(evento.idOportunidade());
+            if (evento.anterior() != null && !idAtual.equals(idAnterior)) {
+                alteracoes.retornadas.add(evento.idOportunidade());
+            }
+        }
+    }
+
+    /**
+     * Alterações depois do cursor, em ordem de versão e id, com no máximo limite itens entre alteradas e excluídas.
+     * Sem cursor, devolve todas as oportunidades da revenda. As duas consultas leem o mesmo snapshot.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public AlteracoesDto buscar(Long idRevenda, String desde, int limite) {
+        var cursor = decodificarCursor(desde);
+        var alteradas = oportunidadeRepository.buscarAlteradasDaRevenda(idRevenda, cursor.versao(), cursor.id(), Limit.of(limite + 1)).iterator();
+        var excluidas = oportunidadeExcluidaRepository.buscarDaRevenda(idRevenda, cursor.versao(), cursor.id(), Limit.of(limite + 1)).iterator();
+
+        var proximaAlterada = alteradas.hasNext() ? alteradas.next() : null;
+        var proximaExcluida = excluidas.hasNext() ? excluidas.next() : null;
+        var resumos = new ArrayList<OportunidadeResumoDto>();
+        var idsExcluidas = new ArrayList<Long>();
+        var ultimo = cursor;
+
+        while (resumos.size() + idsExcluidas.size() < limite && (proximaAlterada != null || proximaExcluida != null)) {
+            if (proximaExcluida == null || proximaAlterada != null
+                    && new Cursor(proximaAlterada.getVersaoAlteracao(), proximaAlterada.getId()).antesDe(
+                            new Cursor(proximaExcluida.getVersaoAlteracao(), proximaExcluida.getOportunidadeId()))) {
+                resumos.add(OportunidadeResumoDto.de(proximaAlterada));
+                ultimo = new Cursor(proximaAlterada.getVersaoAlteracao(), proximaAlterada.getId());
+                proximaAlterada = alteradas.hasNext() ? alteradas.next() : null;
+            } else {
+                idsExcluidas.add(proximaExcluida.getOportunidadeId());
+                ultimo = new Cursor(proximaExcluida.getVersaoAlteracao(), proximaExcluida.getOportunidadeId());
+                proximaExcluida = excluidas.hasNext() ? excluidas.next() : null;
+            }
+        }
+
+        return new AlteracoesDto(resumos, idsExcluidas, codificarCursor(ultimo), proximaAlterada != null || proximaExcluida != null);
+    }
+
+    private Alteracoes alteracoes(Long idRevenda) {
+        @SuppressWarnings("unchecked")
+        var porRevenda = (Map<Long, Alteracoes>) TransactionSynchronizationManager.getResource(this);
+        if (porRevenda == null) {
+            porRevenda = new TreeMap<>();
+            TransactionSynchronizationManager.bindResource(this, porRevenda);
+            TransactionSynchronizationManager.registerSynchronization(new GravacaoAlteracoes());
+        }
+        return porRevenda.computeIfAbsent(idRevenda, id -> new Alteracoes());
+    }
+
+    private void gravar(Long idRevenda, Alteracoes alteracoes) {
+        revendaRepository.incrementarVersaoAlteracoes(idRevenda);
+
+        if (!alteracoes.retornadas.isEmpty()) {
+            oportunidadeExcluidaRepository.removerDaRevenda(idRevenda, alteracoes.retornadas);
+        }
+        if (!alteracoes.vivas.isEmpty()) {
+            oportunidadeRepository.registrarVersaoAlteracao(idRevenda, alteracoes.vivas);
+        }
+        if (!alteracoes.excluidas.isEmpty()) {
+            var versao = revendaRepository.buscarVersaoAlteracoes(idRevenda);
+            oportunidadeExcluidaRepository.saveAll(alteracoes.excluidas.stream()
+                    .map(idOportunidade -> OportunidadeExcluida.builder()
+                            .revendaId(idRevenda)
+                            .oportunidadeId(idOportunidade)
+                            .versaoAlteracao(versao)
+                            .build())
+                    .toList());
+        }
+    }
+
+    private static Cursor decodificarCursor(String desde) {
+        if (desde == null || desde.isBlank()) {
+            return new Cursor(-1L, 0L);
+        }
+        try {
+            var valor = new String(Base64.getUrlDecoder().decode(desde), StandardCharsets.UTF_8);
+            if (!valor.startsWith(PREFIXO_CURSOR)) {
+                throw new IllegalArgumentException(valor);
+            }
+            var partes = valor.substring(PREFIXO_CURSOR.length()).split(":", -1);
+            if (partes.length != 2) {
+                throw new IllegalArgumentException(valor);
+            }
+            return new Cursor(Long.parseLong(partes[0]), Long.parseLong(partes[1]));
+        } catch (IllegalArgumentException e) {
+            throw new ValidacaoException("O parâmetro 'desde' informado é inválido.");
+        }
+    }
+
+    private static String codificarCursor(Cursor cursor) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIXO_CURSOR + cursor.versao() + ":" + cursor.id()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record Cursor(Long versao, Long id) {
+
+        boolean antesDe(Cursor outro) {
+            return versao < outro.versao || versao.equals(outro.versao) && id < outro.id;
+        }
+    }
+
+    /**
+     * Oportunidades da revenda alteradas na transação. Uma oportunidade está em vivas ou em excluidas, conforme a
+     * última alteração; retornadas são as que entraram na revenda e podem ter um registro de exclusão anterior.
+     */
+    private static final class Alteracoes {
+
+        private final Set<Long> vivas = new TreeSet<>();
+        private final Set<Long> excluidas = new TreeSet<>();
+        private final Set<Long> retornadas = new TreeSet<>();
+
+        void alterar(Long idOportunidade) {
+            excluidas.remove(idOportunidade);
+            vivas.add(idOportunidade);
+        }
+
+        void excluir(Long idOportunidade) {
+            vivas.remove(idOportunidade);
+            excluidas.add(idOportunidade);
+        }
+    }
+
+    private final class GravacaoAlteracoes implements TransactionSynchronization {
+
+        @Override
+        public int getOrder() {
+            return OrdemGravacao.REVENDAS;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void beforeCommit(boolean readOnly) {
+            ((Map<Long, Alteracoes>) TransactionSynchronizationManager.getResource(AlteracoesOportunidades.this))
+                    .forEach(AlteracoesOportunidades.this::gravar);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(AlteracoesOportunidades.this);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.mobiauto.service.specification;
+
+import com.mobiauto.dto.FiltroOportunidadeDto;
+import com.mobiauto.model.Oportunidade;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Locale;
+
+public final class OportunidadeSpecification {
+
+    private OportunidadeSpecification() {
+    }
+
+    public static Specification<Oportunidade> pesquisar(Long idRevenda, FiltroOportunidadeDto filtro, Long aposId) {
+        return (root, query, cb) -> {
+            var predicados = new ArrayList<Predicate>();
+
+            predicados.add(cb.equal(root.get("lojaAssociada").get("id"), idRevenda));
+            predicados.add(cb.greaterThan(root.get("id"), aposId));
+
+            if (filtro.getStatus() != null) {
+                predicados.add(cb.equal(root.get("status"), filtro.getStatus()));
+            }
+            if (temTexto(filtro.getMarcaVeiculo())) {
+                predicados.add(cb.equal(cb.lower(root.get("marcaVeiculo")), normalizar(filtro.getMarcaVeiculo())));
+            }
+            if (temTexto(filtro.getModeloVeiculo())) {
+                predicados.add(cb.equal(cb.lower(root.get("modeloVeiculo")), normalizar(filtro.getModeloVeiculo())));
+            }
+            if (filtro.getAnoVeiculoDe() != null) {
+                predicados.add(cb.greaterThanOrEqualTo(root.get("anoVeiculo"), filtro.getAnoVeiculoDe()));
+            }
+            if (filtro.getAnoVeiculoAte() != null) {
+                predicados.add(cb.lessThanOrEqualTo(root.get("anoVeiculo"), filtro.getAnoVeiculoAte()));
+            }
+            if (filtro.getDataAtribuicaoDe() != null) {
+                predicados.add(cb.greaterThanOrEqualTo(root.get("dataAtribuicao"), filtro.getDataAtribuicaoDe()));
+            }
+            if (filtro.getDataAtribuicaoAte() != null) {
+                predicados.add(cb.lessThanOrEqualTo(root.get("dataAtribuicao"), filtro.getDataAtribuicaoAte()));
+            }
+            if (filtro.getDataConclusaoDe() != null) {
+                predicados.add(cb.greaterThanOrEqualTo(root.get("dataConclusao"), filtro.getDataConclusaoDe()));
+            }
+            if (filtro.getDataConclusaoAte() != null) {
+                predicados.add(cb.lessThanOrEqualTo(root.get("dataConclusao"), filtro.getDataConclusaoAte()));
+            }
+            if (filtro.getUsuarioAssociadoId() != null) {
+                predicados.add(cb.equal(root.get("usuarioAssociado").get("id"), filtro.getUsuarioAssociadoId()));
+            }
+
+            return cb.and(predicados.toArray(Predicate[]::new));
+        };
+    }
+
+    private static boolean temTexto(String valor) {
+        return valor != null && !valor.isBlank();
+    }
+
+    private static String normalizar(String valor) {
+        return valor.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,83 @@
+package com.mobiauto.service.versao;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versão em memória dos dados de cada revenda listados em /oportunidades/revenda e /usuarios/revenda, incrementada
+ * depois do commit de toda escrita em oportunidades (OportunidadeAlterada) e usuários da revenda, nesta e nas demais
+ * instâncias, pelo BarramentoInvalidacao. Usada como ETag forte dessas listagens, para responder If-None-Match com 304
+ * sem consultar o banco. O ETag inclui o instante de subida da aplicação, então versões de outra execução nunca coincidem.
+ */
+@Component
+public class VersoesRevenda {
+
+    private final ConcurrentMap<Long, AtomicLong> versoes = new ConcurrentHashMap<>();
+    private final String execucao = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    /**
+     * Deve ser lido antes de consultar os dados: uma escrita concluída entre a leitura e a consulta só faz a próxima
+     * requisição receber os dados de novo, nunca um 304 com dados antigos.
+     */
+    public String etag(Long idRevenda) {
+        if (idRevenda == null) {
+            return null;
+        }
+        return "\"" + execucao + "-" + idRevenda + "-" + versao(idRevenda).get() + "\"";
+    }
+
+    /**
+     * Dentro de uma transação o incremento acontece depois do commit; fora dela, imediatamente.
+     */
+    @SuppressWarnings("unchecked")
+    public void incrementar(Long idRevenda) {
+        if (idRevenda == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            versao(idRevenda).incrementAndGet();
+            return;
+        }
+
+        var revendas = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (revendas == null) {
+            revendas = new TreeSet<>();
+            TransactionSynchronizationManager.bindResource(this, revendas);
+            TransactionSynchronizationManager.registerSynchronization(new IncrementoAposCommit());
+        }
+        revendas.add(idRevenda);
+    }
+
+    /**
+     * Invalida todo ETag já emitido por esta instância (toda revenda que emitiu um ETag tem versão registrada).
+     */
+    public void incrementarTodas() {
+        versoes.values().forEach(AtomicLong::incrementAndGet);
+    }
+
+    private AtomicLong versao(Long idRevenda) {
+        return versoes.computeIfAbsent(idRevenda, id -> new AtomicLong());
+    }
+
+    private final class IncrementoAposCommit implements TransactionSynchronization {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void afterCommit() {
+            ((Set<Long>) TransactionSynchronizationManager.getResource(VersoesRevenda.this))
+                    .forEach(idRevenda -> versao(idRevenda).incrementAndGet());
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(VersoesRevenda.this);
+        }
+    }
+}
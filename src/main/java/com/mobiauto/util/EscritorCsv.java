@@ -0,0 +1,46 @@
+package com.mobiauto.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Escrita de CSV (RFC 4180) registro a registro: campos com separador, aspas ou quebras de linha são escritos entre aspas.
+ * Valores nulos viram campos vazios.
+ */
+public class EscritorCsv {
+
+    private final Writer writer;
+    private final char separador;
+
+    public EscritorCsv(Writer writer, char separador) {
+        this.writer = writer;
+        this.separador = separador;
+    }
+
+    public void escreverRegistro(List<?> campos) throws IOException {
+        for (int i = 0; i < campos.size(); i++) {
+            if (i > 0) {
+                writer.write(separador);
+            }
+            escreverCampo(campos.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    private void escreverCampo(Object valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+
+        var texto = valor.toString();
+        if (texto.indexOf(separador) < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            writer.write(texto);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(texto.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
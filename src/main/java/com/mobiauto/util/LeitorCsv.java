@@ -0,0 +1,102 @@
+package com.mobiauto.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitura incremental de CSV (RFC 4180): campos entre aspas podem conter o separador, aspas duplicadas e quebras de linha.
+ * Mantém em memória apenas o registro atual.
+ */
+public class LeitorCsv {
+
+    private final Reader reader;
+    private final char separador;
+    private long linhaAtual;
+    private long linhaRegistro;
+    private int proximo = -2;
+
+    public LeitorCsv(Reader reader, char separador) {
+        this(reader, separador, 1);
+    }
+
+    /**
+     * Para um reader já posicionado depois das primeiras linhas do arquivo: a numeração começa em primeiraLinha.
+     */
+    public LeitorCsv(Reader reader, char separador, long primeiraLinha) {
+        this.reader = reader;
+        this.separador = separador;
+        this.linhaAtual = primeiraLinha;
+    }
+
+    /**
+     * Retorna os campos do próximo registro, ou null ao fim do arquivo.
+     */
+    public List<String> proximoRegistro() throws IOException {
+        var c = ler();
+        if (c == -1) {
+            return null;
+        }
+
+        linhaRegistro = linhaAtual;
+        var campos = new ArrayList<String>();
+        var campo = new StringBuilder();
+        var entreAspas = false;
+
+        while (true) {
+            if (entreAspas) {
+                if (c == -1) {
+                    throw new IOException("Aspas não fechadas no registro iniciado na linha " + linhaRegistro + ".");
+                }
+                if (c == '"') {
+                    if (espiar() == '"') {
+                        ler();
+                        campo.append('"');
+                    } else {
+                        entreAspas = false;
+                    }
+                } else {
+                    campo.append((char) c);
+                }
+            } else if (c == '"' && campo.isEmpty()) {
+                entreAspas = true;
+            } else if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r' && espiar() == '\n') {
+                    ler();
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else {
+                campo.append((char) c);
+            }
+            c = ler();
+        }
+    }
+
+    /**
+     * Linha do arquivo (a partir de 1) em que começou o último registro lido.
+     */
+    public long getLinhaRegistro() {
+        return linhaRegistro;
+    }
+
+    private int ler() throws IOException {
+        var c = proximo != -2 ? proximo : reader.read();
+        proximo = -2;
+        if (c == '\n') {
+            linhaAtual++;
+        }
+        return c;
+    }
+
+    private int espiar() throws IOException {
+        if (proximo == -2) {
+            proximo = reader.read();
+        }
+        return proximo;
+    }
+}
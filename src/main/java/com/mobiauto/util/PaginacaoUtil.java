@@ -0,0 +1,59 @@
+package com.mobiauto.util;
+
+import com.mobiauto.dto.PaginaDto;
+import com.mobiauto.exception.ValidacaoException;
+import org.springframework.data.domain.Limit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+public final class PaginacaoUtil {
+
+    public static final int LIMITE_PADRAO = 50;
+    public static final int LIMITE_MAXIMO = 500;
+
+    private static final String PREFIXO = "id:";
+
+    public static int normalizarLimite(Integer limite) {
+        if (limite == null) {
+            return LIMITE_PADRAO;
+        }
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new ValidacaoException("O parâmetro 'limite' deve estar entre 1 e " + LIMITE_MAXIMO + ".");
+        }
+        return limite;
+    }
+
+    public static Limit consultarAte(int limite) {
+        return Limit.of(limite + 1);
+    }
+
+    public static Long decodificarCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            var valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!valor.startsWith(PREFIXO)) {
+                throw new IllegalArgumentException(valor);
+            }
+            return Long.parseLong(valor.substring(PREFIXO.length()));
+        } catch (IllegalArgumentException e) {
+            throw new ValidacaoException("O parâmetro 'cursor' informado é inválido.");
+        }
+    }
+
+    public static String codificarCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((PREFIXO + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static <T> PaginaDto<T> montarPagina(List<T> resultado, int limite, Function<T, Long> id) {
+        if (resultado.size() <= limite) {
+            return new PaginaDto<>(resultado, limite, null);
+        }
+        var itens = resultado.subList(0, limite);
+        return new PaginaDto<>(itens, limite, codificarCursor(id.apply(itens.get(limite - 1))));
+    }
+}
@@ -0,0 +1,32 @@
+package com.mobiauto.util;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+public final class RespostaCondicionalUtil {
+
+    /**
+     * Revalidação obrigatória a cada uso: substitui o no-store padrão do Spring Security, que impediria o cliente de
+     * guardar a resposta e reenviar o ETag.
+     */
+    private static final CacheControl REVALIDAR = CacheControl.noCache().cachePrivate();
+
+    /**
+     * Responde 304 sem calcular o corpo quando o If-None-Match da requisição corresponde ao ETag; sem ETag, responde
+     * normalmente.
+     */
+    public static ResponseEntity<Object> responder(String etag, WebRequest request, Supplier<?> corpo) {
+        if (etag == null) {
+            return ResponseEntity.ok(corpo.get());
+        }
+        if (request.checkNotModified(etag)) {
+            // checkNotModified já escreveu o ETag na resposta
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDAR).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDAR).body(corpo.get());
+    }
+}
@@ -0,0 +1,39 @@
+-- Executado apos o ddl-auto do Hibernate (spring.jpa.defer-datasource-initialization); deve ser idempotente.
+
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+ALTER TABLE oportunidades ADD COLUMN IF NOT EXISTS busca tsvector GENERATED ALWAYS AS (
+    to_tsvector('simple',
+        coalesce(nome_cliente, '') || ' ' ||
+        coalesce(email_cliente, '') || ' ' ||
+        translate(coalesce(email_cliente, ''), '@._-+', '     ') || ' ' ||
+        translate(coalesce(telefone_cliente, ''), '()-+.', '     ') || ' ' ||
+        regexp_replace(coalesce(telefone_cliente, ''), '[^0-9]', '', 'g') || ' ' ||
+        coalesce(marca_veiculo, '') || ' ' ||
+        coalesce(modelo_veiculo, '') || ' ' ||
+        coalesce(versao_veiculo, ''))
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_oportunidades_loja_busca ON oportunidades USING GIN (loja_associada_id, busca);
+
+-- Ids gerados por sequence (allocationSize = 50): avanca cada sequence para alem dos ids ja gravados pelas tabelas criadas com IDENTITY.
+-- Nunca retrocede a sequence nem altera uma sequence nova de tabela vazia.
+SELECT setval('revendas_seq', maximo) FROM (SELECT MAX(id) AS maximo FROM revendas) r WHERE maximo >= (SELECT last_value FROM revendas_seq);
+SELECT setval('usuarios_seq', maximo) FROM (SELECT MAX(id) AS maximo FROM usuarios) u WHERE maximo >= (SELECT last_value FROM usuarios_seq);
+SELECT setval('oportunidades_seq', maximo) FROM (SELECT MAX(id) AS maximo FROM oportunidades) o WHERE maximo >= (SELECT last_value FROM oportunidades_seq);
+
+-- Oportunidades em aberto por usuario, mantido pela aplicacao com UPDATE relativo: calculado aqui so para linhas ainda sem valor
+-- (coluna recem-criada pelo ddl-auto). Status 2 = CONCLUIDO.
+UPDATE usuarios u SET atendimentos_abertos = (
+    SELECT count(*) FROM oportunidades o WHERE o.usuario_associado_id = u.id AND o.status <> 2
+) WHERE u.atendimentos_abertos IS NULL;
+ALTER TABLE usuarios ALTER COLUMN atendimentos_abertos SET DEFAULT 0, ALTER COLUMN atendimentos_abertos SET NOT NULL;
+
+-- Oportunidades aguardando atribuicao pela fila de atendimento; o indice parcial contem so as pendentes.
+UPDATE oportunidades SET atribuicao_pendente = false WHERE atribuicao_pendente IS NULL;
+ALTER TABLE oportunidades ALTER COLUMN atribuicao_pendente SET DEFAULT false, ALTER COLUMN atribuicao_pendente SET NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_oportunidades_atribuicao_pendente ON oportunidades (id) WHERE atribuicao_pendente;
+
+-- Dia de entrada das oportunidades, base de contagens_diarias_oportunidades: para as ja gravadas, a data de atribuicao
+-- (ou a de conclusao); as sem nenhuma das duas ficam fora das contagens diarias.
+UPDATE oportunidades SET data_cadastro = coalesce(data_atribuicao, data_conclusao) WHERE data_cadastro IS NULL;
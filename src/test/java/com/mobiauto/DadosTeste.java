@@ -0,0 +1,92 @@
+package com.mobiauto;
+
+import com.mobiauto.dto.CadastroOportunidadeDto;
+import com.mobiauto.enumerated.Cargo;
+import com.mobiauto.model.Oportunidade;
+import com.mobiauto.model.Revenda;
+import com.mobiauto.model.Usuario;
+import com.mobiauto.security.UserPrincipal;
+import com.mobiauto.service.repository.RevendaRepository;
+import com.mobiauto.service.repository.RoleRepository;
+import com.mobiauto.service.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Dados dos testes de integração. É um @Component comum, encontrado pelo component scan da aplicação, para que os testes
+ * continuem compartilhando o mesmo contexto (e o mesmo banco em memória). Nomes, emails e CNPJs levam System.nanoTime(),
+ * para que os testes não dependam uns dos outros.
+ */
+@Component
+@RequiredArgsConstructor
+public class DadosTeste {
+
+    private static final long ROLE_ASSISTENTE = 4L;
+
+    private final RevendaRepository revendaRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final RoleRepository roleRepository;
+
+    public Revenda salvarRevenda() {
+        var numero = System.nanoTime();
+        return revendaRepository.save(Revenda.builder().cnpj(String.valueOf(numero)).nomeSocial("Revenda " + numero).build());
+    }
+
+    public Usuario salvarAssistente(Revenda revenda, Date horarioUltimaOportunidade) {
+        var numero = System.nanoTime();
+        return usuarioRepository.save(Usuario.builder()
+                .nome("Assistente " + numero)
+                .email("assistente" + numero + "@email.com")
+                .senha("123")
+                .cargo(Cargo.ASSISTENTE)
+                .lojaAssociada(revenda)
+                .horarioUltimaOportunidade(horarioUltimaOportunidade)
+                .roles(new ArrayList<>(List.of(roleRepository.findById(ROLE_ASSISTENTE).orElseThrow())))
+                .build());
+    }
+
+    /**
+     * Assistente autenticado da revenda, para /atender.
+     */
+    public static UserPrincipal assistenteDaRevenda(Long idRevenda) {
+        return UserPrincipal.create(1L, "funcionario@email.com", Cargo.ASSISTENTE, idRevenda, List.of("ROLE_NIVEL_ASSISTENTE"));
+    }
+
+    public static CadastroOportunidadeDto cadastro(Long idRevenda, Long idUsuario) {
+        return CadastroOportunidadeDto.builder()
+                .nomeCliente("Cliente")
+                .emailCliente("cliente@email.com")
+                .telefoneCliente("912345678")
+                .marcaVeiculo("Mobi")
+                .modeloVeiculo("Mobicar")
+                .versaoVeiculo("1.0")
+                .anoVeiculo(2018)
+                .lojaAssociadaId(idRevenda)
+                .usuarioAssociadoId(idUsuario)
+                .build();
+    }
+
+    /**
+     * Oportunidade com os mesmos dados, sem id, para edição.
+     */
+    public static Oportunidade copia(Oportunidade oportunidade) {
+        return Oportunidade.builder()
+                .status(oportunidade.getStatus())
+                .nomeCliente(oportunidade.getNomeCliente())
+                .emailCliente(oportunidade.getEmailCliente())
+                .telefoneCliente(oportunidade.getTelefoneCliente())
+                .marcaVeiculo(oportunidade.getMarcaVeiculo())
+                .modeloVeiculo(oportunidade.getModeloVeiculo())
+                .versaoVeiculo(oportunidade.getVersaoVeiculo())
+                .anoVeiculo(oportunidade.getAnoVeiculo())
+                .dataAtribuicao(oportunidade.getDataAtribuicao())
+                .motivoConclusao(oportunidade.getMotivoConclusao())
+                .lojaAssociada(oportunidade.getLojaAssociada())
+                .usuarioAssociado(oportunidade.getUsuarioAssociado())
+                .build();
+    }
+}
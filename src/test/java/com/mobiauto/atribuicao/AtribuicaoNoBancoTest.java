@@ -0,0 +1,70 @@
+package com.mobiauto.atribuicao;
+
+import com.mobiauto.enumerated.Cargo;
+import com.mobiauto.service.atribuicao.AtribuicaoNoBanco;
+import com.mobiauto.service.atribuicao.TravaAtribuicaoRevenda;
+import com.mobiauto.service.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AtribuicaoNoBancoTest {
+
+    private static final int CARGO_ASSISTENTE = Cargo.ASSISTENTE.ordinal();
+
+    @InjectMocks
+    AtribuicaoNoBanco atribuicao;
+
+    @Mock
+    UsuarioRepository usuarioRepository;
+
+    @Mock
+    TravaAtribuicaoRevenda travaAtribuicaoRevenda;
+
+    @Test
+    void atribuirComTravaDaRevenda() {
+        var horario = new Date();
+        when(travaAtribuicaoRevenda.travar(1L)).thenReturn(true);
+        when(usuarioRepository.atribuirAssistenteMaisOcioso(1L, CARGO_ASSISTENTE, horario)).thenReturn(Optional.of(12L));
+
+        assertEquals(12L, atribuicao.atribuir(1L, horario));
+        verify(usuarioRepository, never()).atribuirAssistenteMaisOciosoLivre(anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void atribuirAssistenteLivre() {
+        var horario = new Date();
+        when(usuarioRepository.atribuirAssistenteMaisOciosoLivre(1L, CARGO_ASSISTENTE, horario)).thenReturn(Optional.of(10L));
+
+        assertEquals(10L, atribuicao.atribuir(1L, horario));
+        verify(usuarioRepository, never()).atribuirAssistenteMaisOcioso(anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void atribuirAguardandoQuandoTodosTravados() {
+        var horario = new Date();
+        when(usuarioRepository.atribuirAssistenteMaisOciosoLivre(1L, CARGO_ASSISTENTE, horario)).thenReturn(Optional.empty());
+        when(usuarioRepository.atribuirAssistenteMaisOcioso(1L, CARGO_ASSISTENTE, horario)).thenReturn(Optional.of(11L));
+
+        assertEquals(11L, atribuicao.atribuir(1L, horario));
+    }
+
+    @Test
+    void atribuirSemAssistentes() {
+        var horario = new Date();
+        when(usuarioRepository.atribuirAssistenteMaisOciosoLivre(1L, CARGO_ASSISTENTE, horario)).thenReturn(Optional.empty());
+        when(usuarioRepository.atribuirAssistenteMaisOcioso(1L, CARGO_ASSISTENTE, horario)).thenReturn(Optional.empty());
+
+        assertNull(atribuicao.atribuir(1L, horario));
+    }
+}
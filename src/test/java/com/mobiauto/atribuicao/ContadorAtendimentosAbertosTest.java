@@ -0,0 +1,88 @@
+package com.mobiauto.atribuicao;
+
+import com.mobiauto.DadosTeste;
+import com.mobiauto.enumerated.Status;
+import com.mobiauto.model.Usuario;
+import com.mobiauto.service.OportunidadeService;
+import com.mobiauto.service.repository.RevendaRepository;
+import com.mobiauto.service.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Date;
+import java.util.List;
+
+import static com.mobiauto.DadosTeste.cadastro;
+import static com.mobiauto.DadosTeste.copia;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ContadorAtendimentosAbertosTest {
+
+    @Autowired
+    OportunidadeService oportunidadeService;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    RevendaRepository revendaRepository;
+
+    @Autowired
+    DadosTeste dadosTeste;
+
+    Usuario assistente1;
+
+    Usuario assistente2;
+
+    @BeforeEach
+    void setUp() {
+        var revenda = revendaRepository.findById(1L).orElseThrow();
+        assistente1 = dadosTeste.salvarAssistente(revenda, new Date());
+        assistente2 = dadosTeste.salvarAssistente(revenda, new Date());
+    }
+
+    @Test
+    void cadastroEdicaoEExclusao() {
+        var oportunidade = oportunidadeService.save(cadastro(1L, assistente1.getId()));
+        oportunidadeService.saveAll(List.of(cadastro(1L, assistente1.getId()), cadastro(1L, assistente2.getId())));
+        assertAbertos(2, 1);
+
+        oportunidade.setStatus(Status.EM_ATENDIMENTO);
+        oportunidade.setUsuarioAssociado(Usuario.builder().id(assistente2.getId()).build());
+        oportunidadeService.update(oportunidade.getId(), copia(oportunidade));
+        assertAbertos(1, 2);
+
+        oportunidade.setStatus(Status.CONCLUIDO);
+        oportunidade.setMotivoConclusao("Venda realizada");
+        oportunidadeService.update(oportunidade.getId(), copia(oportunidade));
+        assertAbertos(1, 1);
+
+        oportunidade.setStatus(Status.EM_ATENDIMENTO);
+        oportunidadeService.update(oportunidade.getId(), copia(oportunidade));
+        assertAbertos(1, 2);
+
+        oportunidadeService.delete(oportunidade.getId());
+        assertAbertos(1, 1);
+    }
+
+    @Test
+    void edicaoSemMudarAssistenteOuStatus() {
+        var oportunidade = oportunidadeService.save(cadastro(1L, assistente1.getId()));
+
+        oportunidade.setNomeCliente("Outro nome");
+        oportunidade.setUsuarioAssociado(Usuario.builder().id(assistente1.getId()).build());
+        oportunidadeService.update(oportunidade.getId(), copia(oportunidade));
+
+        assertAbertos(1, 0);
+    }
+
+    private void assertAbertos(int abertosAssistente1, int abertosAssistente2) {
+        assertEquals(abertosAssistente1, usuarioRepository.findById(assistente1.getId()).orElseThrow().getAtendimentosAbertos());
+        assertEquals(abertosAssistente2, usuarioRepository.findById(assistente2.getId()).orElseThrow().getAtendimentosAbertos());
+    }
+}
@@ -0,0 +1,107 @@
+package com.mobiauto.atribuicao;
+
+import com.mobiauto.DadosTeste;
+import com.mobiauto.model.Revenda;
+import com.mobiauto.model.Usuario;
+import com.mobiauto.security.UserPrincipal;
+import com.mobiauto.service.OportunidadeService;
+import com.mobiauto.service.atribuicao.FilaAtendimento;
+import com.mobiauto.service.atribuicao.IndiceAssistentesOciosos;
+import com.mobiauto.service.repository.OportunidadeRepository;
+import com.mobiauto.service.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static com.mobiauto.DadosTeste.cadastro;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class FilaAtendimentoTest {
+
+    @Autowired
+    OportunidadeService oportunidadeService;
+
+    @Autowired
+    FilaAtendimento filaAtendimento;
+
+    @Autowired
+    IndiceAssistentesOciosos indiceAssistentesOciosos;
+
+    @Autowired
+    OportunidadeRepository oportunidadeRepository;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    DadosTeste dadosTeste;
+
+    Revenda revenda;
+
+    UserPrincipal userPrincipal;
+
+    @BeforeEach
+    void setUp() {
+        revenda = dadosTeste.salvarRevenda();
+        userPrincipal = DadosTeste.assistenteDaRevenda(revenda.getId());
+    }
+
+    @Test
+    void atribuirEmLoteNoRodizio() {
+        var assistente1 = salvarAssistente(new Date(1000));
+        var assistente2 = salvarAssistente(new Date(2000));
+
+        var ids = new ArrayList<Long>();
+        for (int i = 0; i < 3; i++) {
+            var recebida = oportunidadeService.receberParaAtendimento(cadastro(null, null), userPrincipal);
+            assertTrue(recebida.getAtribuicaoPendente());
+            assertNull(recebida.getUsuarioAssociado());
+            ids.add(recebida.getId());
+        }
+
+        filaAtendimento.processar();
+
+        var atribuidas = ids.stream().map(id -> oportunidadeRepository.findById(id).orElseThrow()).toList();
+        assertEquals(List.of(assistente1.getId(), assistente2.getId(), assistente1.getId()),
+                atribuidas.stream().map(o -> o.getUsuarioAssociado().getId()).toList());
+        atribuidas.forEach(o -> {
+            assertFalse(o.getAtribuicaoPendente());
+            assertNotNull(o.getDataAtribuicao());
+        });
+        assertEquals(2, usuarioRepository.findById(assistente1.getId()).orElseThrow().getAtendimentosAbertos());
+        assertEquals(1, usuarioRepository.findById(assistente2.getId()).orElseThrow().getAtendimentosAbertos());
+    }
+
+    @Test
+    void recuperarPendentesSemAssistentes() {
+        var id = oportunidadeService.receberParaAtendimento(cadastro(null, null), userPrincipal).getId();
+        filaAtendimento.processar();
+
+        var oportunidade = oportunidadeRepository.findById(id).orElseThrow();
+        assertFalse(oportunidade.getAtribuicaoPendente());
+        assertNull(oportunidade.getUsuarioAssociado());
+
+        oportunidade.setAtribuicaoPendente(true);
+        oportunidadeRepository.save(oportunidade);
+        var assistente = salvarAssistente(null);
+
+        filaAtendimento.recuperarPendentes();
+        filaAtendimento.processar();
+
+        assertEquals(assistente.getId(), oportunidadeRepository.findById(id).orElseThrow().getUsuarioAssociado().getId());
+    }
+
+    private Usuario salvarAssistente(Date horarioUltimaOportunidade) {
+        var assistente = dadosTeste.salvarAssistente(revenda, horarioUltimaOportunidade);
+        indiceAssistentesOciosos.registrar(assistente);
+        return assistente;
+    }
+}
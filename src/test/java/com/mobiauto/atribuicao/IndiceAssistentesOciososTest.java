@@ -0,0 +1,174 @@
+package com.mobiauto.atribuicao;
+
+import com.mobiauto.enumerated.Cargo;
+import com.mobiauto.model.Revenda;
+import com.mobiauto.model.Usuario;
+import com.mobiauto.service.atribuicao.IndiceAssistentesOciosos;
+import com.mobiauto.service.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IndiceAssistentesOciososTest {
+
+    @InjectMocks
+    IndiceAssistentesOciosos indice;
+
+    @Mock
+    UsuarioRepository usuarioRepository;
+
+    @BeforeEach
+    public void setUp() {
+        lenient().when(usuarioRepository.findByLojaAssociadaIdAndCargo(1L, Cargo.ASSISTENTE)).thenReturn(List.of(
+                assistente(10L, 1L, 3000),
+                assistente(11L, 1L, 1000),
+                assistente(12L, 1L, 2000)));
+    }
+
+    @Test
+    void atribuirProximoEmOrdemDeOciosidade() {
+        assertEquals(11L, indice.atribuirProximo(1L, new Date(5000)));
+        assertEquals(12L, indice.atribuirProximo(1L, new Date(5001)));
+        assertEquals(10L, indice.atribuirProximo(1L, new Date(5002)));
+        assertEquals(11L, indice.atribuirProximo(1L, new Date(5003)));
+
+        verify(usuarioRepository, times(1)).findByLojaAssociadaIdAndCargo(1L, Cargo.ASSISTENTE);
+    }
+
+    @Test
+    void atribuirProximoSemAssistentes() {
+        when(usuarioRepository.findByLojaAssociadaIdAndCargo(2L, Cargo.ASSISTENTE)).thenReturn(List.of());
+
+        assertNull(indice.atribuirProximo(2L, new Date()));
+    }
+
+    @Test
+    void registrarNovoAssistente() {
+        indice.atribuirProximo(1L, new Date(5000));
+
+        indice.registrar(assistente(13L, 1L, 0));
+
+        assertEquals(13L, indice.atribuirProximo(1L, new Date(5001)));
+        assertEquals(12L, indice.atribuirProximo(1L, new Date(5002)));
+    }
+
+    @Test
+    void registrarMudancaDeCargoERevenda() {
+        when(usuarioRepository.findByLojaAssociadaIdAndCargo(2L, Cargo.ASSISTENTE)).thenReturn(List.of());
+        indice.atribuirProximo(1L, new Date(5000));
+        indice.atribuirProximo(2L, new Date(5000));
+
+        var gerente = assistente(12L, 1L, 2000);
+        gerente.setCargo(Cargo.GERENTE);
+        indice.registrar(gerente);
+        indice.registrar(assistente(10L, 2L, 3000));
+
+        assertEquals(11L, indice.atribuirProximo(1L, new Date(5001)));
+        assertEquals(11L, indice.atribuirProximo(1L, new Date(5002)));
+        assertEquals(10L, indice.atribuirProximo(2L, new Date(5003)));
+    }
+
+    @Test
+    void registrarDepoisDoCommit() {
+        indice.atribuirProximo(1L, new Date(5000));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            indice.registrar(assistente(13L, 1L, 0));
+            assertEquals(12L, indice.atribuirProximo(1L, new Date(5001)));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(13L, indice.atribuirProximo(1L, new Date(5002)));
+    }
+
+    @Test
+    void registrarDesfeitoNoRollback() {
+        indice.atribuirProximo(1L, new Date(5000));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            indice.registrar(assistente(13L, 1L, 0));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(12L, indice.atribuirProximo(1L, new Date(5001)));
+    }
+
+    @Test
+    void atribuicaoDesfeitaNoRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertEquals(11L, indice.atribuirProximo(1L, new Date(5000)));
+            assertEquals(12L, indice.atribuirProximo(1L, new Date(5001)));
+            assertEquals(10L, indice.atribuirProximo(1L, new Date(5002)));
+            assertEquals(11L, indice.atribuirProximo(1L, new Date(5003)));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(11L, indice.atribuirProximo(1L, new Date(6000)));
+        assertEquals(12L, indice.atribuirProximo(1L, new Date(6001)));
+    }
+
+    @Test
+    void rollbackNaoDevolveAssistenteRemovido() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertEquals(11L, indice.atribuirProximo(1L, new Date(5000)));
+            indice.remover(11L);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(12L, indice.atribuirProximo(1L, new Date(6000)));
+        assertEquals(10L, indice.atribuirProximo(1L, new Date(6001)));
+        assertEquals(12L, indice.atribuirProximo(1L, new Date(6002)));
+    }
+
+    @Test
+    void remover() {
+        indice.atribuirProximo(1L, new Date(5000));
+
+        indice.remover(12L);
+        indice.remover(10L);
+
+        assertEquals(11L, indice.atribuirProximo(1L, new Date(5001)));
+        assertEquals(11L, indice.atribuirProximo(1L, new Date(5002)));
+    }
+
+    private static Usuario assistente(Long id, Long idRevenda, long horarioUltimaOportunidade) {
+        return Usuario.builder()
+                .id(id)
+                .cargo(Cargo.ASSISTENTE)
+                .lojaAssociada(Revenda.builder().id(idRevenda).build())
+                .horarioUltimaOportunidade(new Date(horarioUltimaOportunidade))
+                .build();
+    }
+}
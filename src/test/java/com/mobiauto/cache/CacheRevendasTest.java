@@ -0,0 +1,81 @@
+package com.mobiauto.cache;
+
+import com.mobiauto.model.Revenda;
+import com.mobiauto.service.cache.CacheRevendas;
+import com.mobiauto.service.repository.RevendaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CacheRevendasTest {
+
+    SimpleMeterRegistry meterRegistry;
+
+    RevendaRepository repository;
+
+    CacheRevendas cache;
+
+    Revenda revenda;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        repository = mock(RevendaRepository.class);
+        cache = new CacheRevendas(repository, meterRegistry, 100, Duration.ofMinutes(10));
+
+        revenda = Revenda.builder().id(1L).cnpj("12345678912345").nomeSocial("Revendedora Teste").build();
+    }
+
+    @Test
+    void buscarPorIdUmaVez() {
+        when(repository.findById(1L)).thenReturn(Optional.of(revenda));
+
+        var primeira = cache.buscarPorId(1L).orElseThrow();
+        var segunda = cache.buscarPorId(1L).orElseThrow();
+
+        assertEquals("Revendedora Teste", segunda.getNomeSocial());
+        assertNotSame(primeira, segunda);
+        verify(repository, times(1)).findById(1L);
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "revendas.id").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void copiaAlteradaNaoAfetaCache() {
+        when(repository.findById(1L)).thenReturn(Optional.of(revenda));
+
+        cache.buscarPorId(1L).orElseThrow().setNomeSocial("Alterado");
+        revenda.setNomeSocial("Alterado no banco");
+
+        assertEquals("Revendedora Teste", cache.buscarPorId(1L).orElseThrow().getNomeSocial());
+    }
+
+    @Test
+    void cnpjInexistenteNaoFicaGuardado() {
+        when(repository.findByCnpj("00000000000000")).thenReturn(null, revenda);
+
+        assertNull(cache.buscarPorCnpj("00000000000000"));
+        assertEquals(1L, cache.buscarPorCnpj("00000000000000").getId());
+        verify(repository, times(2)).findByCnpj("00000000000000");
+    }
+
+    @Test
+    void invalidarPorIdECnpj() {
+        when(repository.findById(1L)).thenReturn(Optional.of(revenda));
+        when(repository.findByCnpj(revenda.getCnpj())).thenReturn(revenda);
+        cache.buscarPorId(1L);
+        cache.buscarPorCnpj(revenda.getCnpj());
+
+        cache.invalidar(1L);
+        cache.buscarPorId(1L);
+        cache.buscarPorCnpj(revenda.getCnpj());
+
+        verify(repository, times(2)).findById(1L);
+        verify(repository, times(2)).findByCnpj(revenda.getCnpj());
+    }
+}
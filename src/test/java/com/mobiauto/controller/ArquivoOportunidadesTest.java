@@ -0,0 +1,206 @@
+package com.mobiauto.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mobiauto.enumerated.Status;
+import com.mobiauto.model.Oportunidade;
+import com.mobiauto.security.TokenService;
+import com.mobiauto.service.repository.OportunidadeRepository;
+import com.mobiauto.service.repository.RevendaRepository;
+import com.mobiauto.service.repository.UsuarioRepository;
+import com.mobiauto.util.LeitorCsv;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ArquivoOportunidadesTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    TokenService tokenService;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    RevendaRepository revendaRepository;
+
+    @Autowired
+    OportunidadeRepository oportunidadeRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    String token;
+
+    Long idExportada;
+
+    @BeforeAll
+    void setUp() {
+        token = tokenService.emitir(usuarioRepository.findByEmailFetchRoles("administrador@email.com")).valor();
+        idExportada = oportunidadeRepository.save(Oportunidade.builder()
+                .status(Status.NOVO)
+                .nomeCliente("Souza, \"Zé\"")
+                .emailCliente("cliente@email.com")
+                .telefoneCliente("912345678")
+                .marcaVeiculo("Mobi")
+                .modeloVeiculo("Mobicar\nSport")
+                .versaoVeiculo("1.0")
+                .anoVeiculo(2020)
+                .dataAtribuicao(LocalDate.of(2024, 5, 1))
+                .lojaAssociada(revendaRepository.getReferenceById(1L))
+                .build()).getId();
+    }
+
+    @Test
+    void importarCsv() throws Exception {
+        var csv = """
+                nomeCliente;emailCliente;telefoneCliente;marcaVeiculo;modeloVeiculo;versaoVeiculo;anoVeiculo;lojaAssociadaId;usuarioAssociadoId
+                Cliente 1;cliente1@email.com;912345678;Mobi;Mobicar;1.0;2018;1;1
+                "Silva; João";cliente2@email.com;912345678;Mobi;"Mobicar
+                Sport";"1.0 \"\"Turbo\"\"";2019;1;
+                Cliente 3;cliente3@email.com;912345678;Mobi;Mobicar;1.0;;1;
+                Cliente 4;cliente4@email.com;912345678;Mobi;Mobicar;1.0;dois mil;1;
+
+                Cliente 5;cliente5@email.com;912345678;Mobi;Mobicar;1.0;2020;999;
+                Cliente 6;cliente6@email.com;912345678;Mobi;Mobicar;1.0;2020;1
+                Cliente 7;cliente7@email.com;912345678;Mobi;Mobicar;1.0;2020;1;
+                """;
+
+        mockMvc.perform(post("/api/v1/oportunidades/importar")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType("text/csv")
+                        .content(csv.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.linhasProcessadas").value(7))
+                .andExpect(jsonPath("$.importadas").value(3))
+                .andExpect(jsonPath("$.comErro").value(4))
+                .andExpect(jsonPath("$.erros", hasSize(4)))
+                .andExpect(jsonPath("$.erros[0].linha").value(5))
+                .andExpect(jsonPath("$.erros[0].mensagem").value("O campo obrigatório 'anoVeiculo' não foi informado."))
+                .andExpect(jsonPath("$.erros[1].linha").value(6))
+                .andExpect(jsonPath("$.erros[1].mensagem").value("Valor inválido para o campo 'anoVeiculo'."))
+                .andExpect(jsonPath("$.erros[2].linha").value(9))
+                .andExpect(jsonPath("$.erros[3].linha").value(8))
+                .andExpect(jsonPath("$.erros[3].mensagem").value("Revenda 999 não encontrada."));
+    }
+
+    @Test
+    void importarCsvComBomECabecalhoLongo() throws Exception {
+        // cabeçalho maior que o buffer padrão do BufferedReader (8 KB)
+        var csv = "\uFEFFnomeCliente" + " ".repeat(10_000) + ",emailCliente,telefoneCliente,marcaVeiculo,modeloVeiculo,versaoVeiculo,anoVeiculo,lojaAssociadaId\n"
+                + "Cliente 1,cliente1@email.com,912345678,Mobi,Mobicar,1.0,2018,1\n"
+                + "Cliente 2,cliente2@email.com,912345678,Mobi,Mobicar,1.0,,1\n";
+
+        mockMvc.perform(post("/api/v1/oportunidades/importar")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType("text/csv")
+                        .content(csv.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.linhasProcessadas").value(2))
+                .andExpect(jsonPath("$.importadas").value(1))
+                .andExpect(jsonPath("$.erros[0].linha").value(3));
+    }
+
+    @Test
+    void importarNdjson() throws Exception {
+        var ndjson = """
+                {"nomeCliente": "Cliente 1", "emailCliente": "cliente1@email.com", "telefoneCliente": "912345678", "marcaVeiculo": "Mobi", "modeloVeiculo": "Mobicar", "versaoVeiculo": "1.0", "anoVeiculo": 2018, "lojaAssociadaId": 1}
+                {"nomeCliente": "Cliente 2", "emailCliente":
+                {"nomeCliente": "Cliente 3", "emailCliente": "cliente3@email.com", "telefoneCliente": "912345678", "marcaVeiculo": "Mobi", "modeloVeiculo": "Mobicar", "versaoVeiculo": "1.0", "anoVeiculo": 2018, "lojaAssociadaId": 1, "usuarioAssociadoId": 999}
+                """;
+
+        mockMvc.perform(post("/api/v1/oportunidades/importar")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.linhasProcessadas").value(3))
+                .andExpect(jsonPath("$.importadas").value(1))
+                .andExpect(jsonPath("$.erros[0].linha").value(2))
+                .andExpect(jsonPath("$.erros[1].linha").value(3))
+                .andExpect(jsonPath("$.erros[1].mensagem").value("Usuário 999 não encontrado."));
+    }
+
+    @Test
+    void exportarCsv() throws Exception {
+        var resultado = mockMvc.perform(get("/api/v1/oportunidades/exportar")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .param("formato", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var csv = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        var leitor = new LeitorCsv(new StringReader(csv), ',');
+        var cabecalho = leitor.proximoRegistro();
+        var registros = new ArrayList<List<String>>();
+        List<String> registro;
+        while ((registro = leitor.proximoRegistro()) != null && !(registro.size() == 1 && registro.get(0).isEmpty())) {
+            registros.add(registro);
+        }
+
+        assertThat(cabecalho).startsWith("id", "status", "nomeCliente").endsWith("lojaAssociadaId", "usuarioAssociadoId");
+        assertThat(registros).hasSize((int) oportunidadeRepository.count()).allSatisfy(campos -> assertThat(campos).hasSameSizeAs(cabecalho));
+        assertThat(registros).filteredOn(campos -> campos.get(0).equals(idExportada.toString())).singleElement()
+                .satisfies(campos -> assertThat(campos.subList(1, campos.size())).containsExactly("NOVO", "Souza, \"Zé\"", "cliente@email.com", "912345678", "Mobi", "Mobicar\nSport", "1.0", "2020", "2024-05-01", "", "", "1", ""));
+    }
+
+    @Test
+    void exportarNdjson() throws Exception {
+        var resultado = mockMvc.perform(get("/api/v1/oportunidades/exportar")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var ndjson = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"oportunidades.ndjson\""))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        var linhas = ndjson.split("\n");
+        assertThat(linhas).hasSize((int) oportunidadeRepository.count());
+
+        var ids = new ArrayList<Long>();
+        for (var linha : linhas) {
+            var oportunidade = objectMapper.readTree(linha);
+            ids.add(oportunidade.get("id").asLong());
+            if (oportunidade.get("id").asLong() == idExportada) {
+                assertThat(oportunidade.get("nomeCliente").asText()).isEqualTo("Souza, \"Zé\"");
+                assertThat(oportunidade.get("dataAtribuicao").asText()).isEqualTo("2024-05-01");
+                assertThat(oportunidade.get("lojaAssociadaId").asLong()).isEqualTo(1L);
+            }
+        }
+        assertThat(ids).isSorted().contains(idExportada);
+    }
+}
@@ -0,0 +1,36 @@
+package com.mobiauto.controller;
+
+import com.mobiauto.dto.LoginDto;
+import com.mobiauto.dto.TokenDto;
+import com.mobiauto.service.AutenticacaoService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AutenticacaoControllerTest {
+
+    @InjectMocks
+    AutenticacaoController controller;
+
+    @Mock
+    AutenticacaoService service;
+
+    @Test
+    void login() {
+        var loginDto = LoginDto.builder().email("teste@email.com").senha("123").build();
+        var tokenDto = TokenDto.builder().token("token").tipo("Bearer").expiraEm(Instant.now()).build();
+
+        when(service.login(loginDto)).thenReturn(tokenDto);
+
+        assertEquals(ResponseEntity.ok(tokenDto), controller.login(loginDto));
+    }
+}
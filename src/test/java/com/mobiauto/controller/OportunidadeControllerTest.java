@@ -1,6 +1,9 @@
 package com.mobiauto.controller;
 
+import com.mobiauto.dto.OportunidadeResumoDto;
+import com.mobiauto.dto.PaginaDto;
 import com.mobiauto.dto.CadastroOportunidadeDto;
+import com.mobiauto.dto.FiltroOportunidadeDto;
 import com.mobiauto.enumerated.Cargo;
 import com.mobiauto.enumerated.Status;
 import com.mobiauto.model.Oportunidade;
@@ -10,13 +13,19 @@ import com.mobiauto.model.Usuario;
 import com.mobiauto.security.UserPrincipal;
 import com.mobiauto.service.OportunidadeService;
 import com.mobiauto.service.UsuarioService;
+import com.mobiauto.service.versao.VersoesRevenda;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -42,6 +51,7 @@ public class OportunidadeControllerTest {
     private static final String COMPANY_NAME = "Revendedora Teste";
     private static final String COMPANY_CNPJ = "123456789";
     private static final String COMPANY_CNPJ_2 = "321456789";
+    private static final String ETAG = "\"execucao-1-0\"";
 
     @InjectMocks
     private OportunidadeController controller;
@@ -52,11 +62,15 @@ public class OportunidadeControllerTest {
     @Mock
     private UsuarioService usuarioService;
 
+    @Mock
+    private VersoesRevenda versoesRevenda;
+
     private Oportunidade oportunidade, oportunidade2, oportunidadeComId;
     private Usuario usuario, usuario2;
     private Revenda revenda, revenda2;
     private UserPrincipal userPrincipal;
     private List<Oportunidade> oportunidades;
+    private List<OportunidadeResumoDto> resumos;
     private List<Usuario> usuarios;
     private List<Role> roles;
 
@@ -94,39 +108,80 @@ public class OportunidadeControllerTest {
         userPrincipal = UserPrincipal.create(usuario);
         oportunidades = new ArrayList<>();
         oportunidades.add(oportunidadeComId);
+        resumos = oportunidades.stream().map(OportunidadeResumoDto::de).toList();
         usuarios = new ArrayList<>();
         usuarios.add(usuario);
     }
 
     @Test
     void buscarOportunidades() {
-        when(service.findAll()).thenReturn(oportunidades);
+        var pagina = new PaginaDto<>(resumos, 50, null);
+        when(service.findAll(null, null)).thenReturn(pagina);
 
-        ResponseEntity<Object> responseOportunidades = controller.buscarOportunidades();
+        ResponseEntity<Object> responseOportunidades = controller.buscarOportunidades(null, null);
 
-        assertEquals(ResponseEntity.ok(oportunidades), responseOportunidades);
-        verify(service).findAll();
+        assertEquals(ResponseEntity.ok(pagina), responseOportunidades);
+        verify(service).findAll(null, null);
         verifyNoMoreInteractions(service);
     }
 
     @Test
     void buscarOportunidadesDaRevenda() {
+        var pagina = new PaginaDto<>(resumos, 50, null);
+        when(versoesRevenda.etag(userPrincipal.getRevendaId())).thenReturn(ETAG);
+        when(service.buscarOportunidadesDaRevenda(userPrincipal, null, null)).thenReturn(pagina);
+
+        ResponseEntity<Object> responseOportunidades = controller.buscarOportunidadesDaRevenda(userPrincipal, null, null,
+                new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse()));
+
+        assertEquals(HttpStatus.OK, responseOportunidades.getStatusCode());
+        assertEquals(ETAG, responseOportunidades.getHeaders().getETag());
+        assertEquals(pagina, responseOportunidades.getBody());
+    }
+
+    @Test
+    void buscarOportunidadesDaRevendaNaoModificados() {
+        var requisicao = new MockHttpServletRequest("GET", "/");
+        requisicao.addHeader(HttpHeaders.IF_NONE_MATCH, ETAG);
+        when(versoesRevenda.etag(userPrincipal.getRevendaId())).thenReturn(ETAG);
+
+        ResponseEntity<Object> responseOportunidades = controller.buscarOportunidadesDaRevenda(userPrincipal, null, null,
+                new ServletWebRequest(requisicao, new MockHttpServletResponse()));
 
-        when(service.buscarOportunidadesDaRevenda(userPrincipal)).thenReturn(oportunidades);
+        assertEquals(HttpStatus.NOT_MODIFIED, responseOportunidades.getStatusCode());
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void pesquisarOportunidadesDaRevenda() {
+        var filtro = FiltroOportunidadeDto.builder().status(Status.NOVO).build();
+        var pagina = new PaginaDto<>(resumos, 10, null);
+        when(service.pesquisarOportunidadesDaRevenda(userPrincipal, filtro, null, 10)).thenReturn(pagina);
+
+        ResponseEntity<Object> responseOportunidades = controller.pesquisarOportunidadesDaRevenda(userPrincipal, filtro, null, 10);
 
-        ResponseEntity<Object> responseOportunidades = controller.buscarOportunidadesDaRevenda(userPrincipal);
+        assertEquals(ResponseEntity.ok(pagina), responseOportunidades);
+    }
+
+    @Test
+    void buscarTextoNaRevenda() {
+        when(service.buscarTextoNaRevenda(userPrincipal, "cliente", null)).thenReturn(resumos);
 
-        assertEquals(ResponseEntity.ok(oportunidades), responseOportunidades);
+        ResponseEntity<Object> responseOportunidades = controller.buscarTextoNaRevenda(userPrincipal, "cliente", null);
 
+        assertEquals(ResponseEntity.ok(resumos), responseOportunidades);
     }
 
     @Test
     void buscarOportunidadePorId() {
-        when(service.findById(oportunidade.getId())).thenReturn(oportunidade);
+        when(service.findById(oportunidadeComId.getId())).thenReturn(oportunidadeComId);
 
-        ResponseEntity<Object> responseOportunidade = controller.buscarOportunidadePorId(oportunidade.getId());
+        ResponseEntity<Object> responseOportunidade = controller.buscarOportunidadePorId(oportunidadeComId.getId());
 
-        assertEquals(ResponseEntity.ok(oportunidade), responseOportunidade);
+        var resumo = (OportunidadeResumoDto) responseOportunidade.getBody();
+        assertEquals(oportunidadeComId.getId(), resumo.getId());
+        assertEquals(revenda.getId(), resumo.getLojaAssociadaId());
+        assertEquals(usuario.getId(), resumo.getUsuarioAssociadoId());
 
     }
 
@@ -0,0 +1,252 @@
+package com.mobiauto.controller;
+
+import com.mobiauto.enumerated.Cargo;
+import com.mobiauto.enumerated.Status;
+import com.mobiauto.model.Oportunidade;
+import com.mobiauto.model.Usuario;
+import com.mobiauto.security.TokenService;
+import com.mobiauto.service.estatistica.ReconstrucaoEstatisticas;
+import com.mobiauto.service.repository.OportunidadeRepository;
+import com.mobiauto.service.repository.RevendaRepository;
+import com.mobiauto.service.repository.RoleRepository;
+import com.mobiauto.service.repository.UsuarioRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que a quantidade de instruções SQL por endpoint não cresce com o número de registros (N+1).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class QuantidadeConsultasSqlTest {
+
+    private static final int QUANTIDADE_ASSISTENTES = 3;
+    private static final int QUANTIDADE_OPORTUNIDADES = 6;
+    private static final int TAMANHO_LOTE = 120;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    TokenService tokenService;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    RevendaRepository revendaRepository;
+
+    @Autowired
+    RoleRepository roleRepository;
+
+    @Autowired
+    OportunidadeRepository oportunidadeRepository;
+
+    @Autowired
+    ReconstrucaoEstatisticas reconstrucaoEstatisticas;
+
+    Statistics statistics;
+
+    String token;
+
+    Long idOportunidade;
+
+    Long idAssistente;
+
+    @BeforeAll
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        var revenda = revendaRepository.findById(1L).orElseThrow();
+        var roleAssistente = roleRepository.findById(4L).orElseThrow();
+
+        var assistentes = new ArrayList<Usuario>();
+        for (int i = 0; i < QUANTIDADE_ASSISTENTES; i++) {
+            assistentes.add(usuarioRepository.save(Usuario.builder()
+                    .nome("Assistente " + i)
+                    .email("assistente" + i + "@email.com")
+                    .senha("123")
+                    .cargo(Cargo.ASSISTENTE)
+                    .lojaAssociada(revenda)
+                    .horarioUltimaOportunidade(new Date())
+                    .roles(new ArrayList<>(List.of(roleAssistente)))
+                    .build()));
+        }
+
+        idAssistente = assistentes.get(0).getId();
+
+        for (int i = 0; i < QUANTIDADE_OPORTUNIDADES; i++) {
+            idOportunidade = oportunidadeRepository.save(Oportunidade.builder()
+                    .status(Status.EM_ATENDIMENTO)
+                    .nomeCliente("Cliente " + i)
+                    .emailCliente("cliente" + i + "@email.com")
+                    .telefoneCliente("912345678")
+                    .marcaVeiculo("Mobi")
+                    .modeloVeiculo("Mobicar")
+                    .versaoVeiculo("1.0")
+                    .anoVeiculo(2018)
+                    .dataCadastro(LocalDate.now(ZoneId.of("America/Sao_Paulo")))
+                    .lojaAssociada(revenda)
+                    .usuarioAssociado(assistentes.get(i % QUANTIDADE_ASSISTENTES))
+                    .build()).getId();
+        }
+
+        // oportunidades gravadas direto no repositório: cria as linhas de estatísticas e a contagem do dia como a carga
+        // inicial da aplicação
+        reconstrucaoEstatisticas.reconstruirTodas();
+
+        token = tokenService.emitir(usuarioRepository.findByEmailFetchRoles("administrador@email.com")).valor();
+    }
+
+    @Test
+    void login() throws Exception {
+        assertEquals(1, contarConsultas(post("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"administrador@email.com\",\"senha\":\"8080\"}")));
+    }
+
+    @Test
+    void listagens() throws Exception {
+        assertEquals(1, contarConsultasAutenticado(get("/api/v1/oportunidades")));
+        assertEquals(1, contarConsultasAutenticado(get("/api/v1/oportunidades/revenda")));
+        assertEquals(1, contarConsultasAutenticado(get("/api/v1/oportunidades/revenda/pesquisa").param("marcaVeiculo", "mobi")));
+        assertEquals(1, contarConsultasAutenticado(get("/api/v1/usuarios")));
+        assertEquals(1, contarConsultasAutenticado(get("/api/v1/usuarios/revenda")));
+        assertEquals(1, contarConsultasAutenticado(get("/api/v1/revendas")));
+    }
+
+    @Test
+    void listagensDaRevendaNaoModificadas() throws Exception {
+        for (var listagem : List.of("/api/v1/oportunidades/revenda", "/api/v1/usuarios/revenda")) {
+            var etag = mockMvc.perform(get(listagem).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            // a versão da revenda fica em memória: o 304 não consulta o banco
+            statistics.clear();
+            mockMvc.perform(get(listagem)
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                            .header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified());
+            assertEquals(0, statistics.getPrepareStatementCount());
+        }
+    }
+
+    @Test
+    void buscasPorId() throws Exception {
+        assertEquals(1, contarConsultasAutenticado(get("/api/v1/oportunidades/" + idOportunidade)));
+        assertEquals(1, contarConsultasAutenticado(get("/api/v1/usuarios/1")));
+    }
+
+    @Test
+    void atender() throws Exception {
+        var atendimento = post("/api/v1/oportunidades/atender")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"nomeCliente": "Cliente", "emailCliente": "cliente@email.com", "telefoneCliente": "912345678",
+                         "marcaVeiculo": "Mobi", "modeloVeiculo": "Mobicar", "versaoVeiculo": "1.0", "anoVeiculo": 2018}""");
+
+        // o primeiro atendimento carrega os assistentes da revenda no índice em memória
+        assertEquals(10, contarConsultasAutenticado(atendimento));
+        // update do horário do assistente escolhido, assistente com roles, insert da oportunidade, revenda do assistente na
+        // resposta (a da oportunidade vem da CacheRevendas), incremento dos atendimentos em aberto do assistente, das
+        // estatísticas e da contagem do dia da revenda, e a versão de alteração da revenda gravada nela e na oportunidade
+        for (int i = 0; i < QUANTIDADE_ASSISTENTES; i++) {
+            assertEquals(9, contarConsultasAutenticado(atendimento));
+        }
+    }
+
+    @Test
+    void editar() throws Exception {
+        // oportunidade com associações (Oportunidade.edicao), update e, na troca de assistente, um update do contador
+        // de atendimentos em aberto e um das estatísticas de cada assistente, além da versão de alteração da revenda
+        assertEquals(8, contarConsultasAutenticado(put("/api/v1/oportunidades/editar/" + idOportunidade)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"status": "EM_ATENDIMENTO", "nomeCliente": "Cliente", "emailCliente": "cliente@email.com", "telefoneCliente": "912345678",
+                         "marcaVeiculo": "Mobi", "modeloVeiculo": "Mobicar", "versaoVeiculo": "1.0", "anoVeiculo": 2018,
+                         "lojaAssociada": {"id": 1}, "usuarioAssociado": {"id": 2}}""")));
+    }
+
+    @Test
+    void editarNaRevenda() throws Exception {
+        // oportunidade com associações (Oportunidade.edicao), que também serve à validação da revenda, update e versão de
+        // alteração da revenda, gravada nela e na oportunidade
+        assertEquals(4, contarConsultasAutenticado(put("/api/v1/oportunidades/editar/revenda/" + idOportunidade)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"status": "EM_ATENDIMENTO", "nomeCliente": "Cliente editado", "emailCliente": "cliente@email.com", "telefoneCliente": "912345678",
+                         "marcaVeiculo": "Mobi", "modeloVeiculo": "Mobicar", "versaoVeiculo": "1.0", "anoVeiculo": 2018,
+                         "lojaAssociada": {"id": 1}, "usuarioAssociado": {"id": 2}}""")));
+    }
+
+    @Test
+    void editarUsuarioNaRevenda() throws Exception {
+        var edicao = put("/api/v1/usuarios/editar/revenda/" + idAssistente)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"nome": "Assistente editado", "email": "assistente0@email.com", "cargo": "ASSISTENTE",
+                         "lojaAssociada": {"id": 1}}""");
+
+        // a primeira edição altera o nome e carrega as roles do cargo na CacheRoles
+        contarConsultasAutenticado(edicao);
+        // usuário com o mesmo email, usuário com revenda e roles (Usuario.edicao), que também serve à validação da
+        // revenda, e troca das roles
+        assertEquals(4, contarConsultasAutenticado(edicao));
+    }
+
+    @Test
+    void cadastrarEmLote() throws Exception {
+        var cadastro = """
+                {"nomeCliente": "Cliente", "emailCliente": "cliente@email.com", "telefoneCliente": "912345678",
+                 "marcaVeiculo": "Mobi", "modeloVeiculo": "Mobicar", "versaoVeiculo": "1.0", "anoVeiculo": 2018,
+                 "lojaAssociadaId": 1, "usuarioAssociadoId": 2}""";
+        var lote = "[" + String.join(",", Collections.nCopies(TAMANHO_LOTE, cadastro)) + "]";
+
+        // instruções preparadas não crescem com o lote: os inserts seguem em lotes JDBC, a sequence reserva 50 ids por chamada,
+        // a revenda vem da CacheRevendas
+        // e os atendimentos em aberto, as estatísticas, a contagem do dia e a versão de alteração são gravados antes do commit
+        assertEquals(10, contarConsultasAutenticado(post("/api/v1/oportunidades/cadastrar/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(lote)));
+    }
+
+    private long contarConsultasAutenticado(MockHttpServletRequestBuilder requisicao) throws Exception {
+        return contarConsultas(requisicao.header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+
+    private long contarConsultas(MockHttpServletRequestBuilder requisicao) throws Exception {
+        statistics.clear();
+        mockMvc.perform(requisicao).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+}
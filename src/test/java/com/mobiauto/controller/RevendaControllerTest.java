@@ -1,5 +1,6 @@
 package com.mobiauto.controller;
 
+import com.mobiauto.dto.PaginaDto;
 import com.mobiauto.model.Revenda;
 import com.mobiauto.service.RevendaService;
 import org.junit.jupiter.api.BeforeEach;
@@ -49,12 +50,13 @@ public class RevendaControllerTest {
 
     @Test
     void buscarRevendas() {
-        when(service.findAll()).thenReturn(revendas);
+        var pagina = new PaginaDto<>(revendas, 50, null);
+        when(service.findAll(null, null)).thenReturn(pagina);
 
-        ResponseEntity<Object> responseRevendas = controller.buscarRevendas();
+        ResponseEntity<Object> responseRevendas = controller.buscarRevendas(null, null);
 
-        assertEquals(ResponseEntity.ok(revendas), responseRevendas);
-        verify(service).findAll();
+        assertEquals(ResponseEntity.ok(pagina), responseRevendas);
+        verify(service).findAll(null, null);
         verifyNoMoreInteractions(service);
     }
 
@@ -1,18 +1,26 @@
 package com.mobiauto.controller;
 
+import com.mobiauto.dto.PaginaDto;
+import com.mobiauto.dto.UsuarioResumoDto;
 import com.mobiauto.enumerated.Cargo;
 import com.mobiauto.model.Revenda;
 import com.mobiauto.model.Role;
 import com.mobiauto.model.Usuario;
 import com.mobiauto.security.UserPrincipal;
 import com.mobiauto.service.UsuarioService;
+import com.mobiauto.service.versao.VersoesRevenda;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -23,12 +31,17 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 public class UsuarioControllerTest {
 
+    private static final String ETAG = "\"execucao-1-0\"";
+
     @InjectMocks
     UsuarioController controller;
 
     @Mock
     UsuarioService service;
 
+    @Mock
+    VersoesRevenda versoesRevenda;
+
     UserPrincipal userPrincipal;
 
     Usuario usuario;
@@ -54,33 +67,53 @@ public class UsuarioControllerTest {
 
     @Test
     void buscarUsuarios() {
-        when(service.findAll()).thenReturn(usuarios);
+        var pagina = new PaginaDto<>(usuarios.stream().map(UsuarioResumoDto::de).toList(), 50, null);
+        when(service.findAll(null, null)).thenReturn(pagina);
 
-        ResponseEntity<Object> responseUsuarios = controller.buscarUsuarios();
+        ResponseEntity<Object> responseUsuarios = controller.buscarUsuarios(null, null);
 
-        assertEquals(ResponseEntity.ok(usuarios), responseUsuarios);
-        verify(service).findAll();
+        assertEquals(ResponseEntity.ok(pagina), responseUsuarios);
+        verify(service).findAll(null, null);
         verifyNoMoreInteractions(service);
     }
 
     @Test
     void buscarUsuariosDaRevenda() {
+        var pagina = new PaginaDto<>(usuarios.stream().map(UsuarioResumoDto::de).toList(), 50, null);
+        when(versoesRevenda.etag(userPrincipal.getRevendaId())).thenReturn(ETAG);
+        when(service.buscarUsuariosDaRevenda(userPrincipal, null, null)).thenReturn(pagina);
 
-        when(service.buscarUsuariosDaRevenda(userPrincipal)).thenReturn(usuarios);
+        ResponseEntity<Object> responseUsuarios = controller.buscarUsuariosDaRevenda(userPrincipal, null, null,
+                new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse()));
 
-        ResponseEntity<Object> responseUsuarios = controller.buscarUsuariosDaRevenda(userPrincipal);
+        assertEquals(HttpStatus.OK, responseUsuarios.getStatusCode());
+        assertEquals(ETAG, responseUsuarios.getHeaders().getETag());
+        assertEquals(pagina, responseUsuarios.getBody());
+    }
 
-        assertEquals(ResponseEntity.ok(usuarios), responseUsuarios);
+    @Test
+    void buscarUsuariosDaRevendaNaoModificados() {
+        var requisicao = new MockHttpServletRequest("GET", "/");
+        requisicao.addHeader(HttpHeaders.IF_NONE_MATCH, ETAG);
+        when(versoesRevenda.etag(userPrincipal.getRevendaId())).thenReturn(ETAG);
+
+        ResponseEntity<Object> responseUsuarios = controller.buscarUsuariosDaRevenda(userPrincipal, null, null,
+                new ServletWebRequest(requisicao, new MockHttpServletResponse()));
 
+        assertEquals(HttpStatus.NOT_MODIFIED, responseUsuarios.getStatusCode());
+        verifyNoInteractions(service);
     }
 
     @Test
     void buscarUsuarioPorId() {
-        when(service.findById(usuario.getId())).thenReturn(usuario);
+        when(service.findById(usuarioComId.getId())).thenReturn(usuarioComId);
 
-        ResponseEntity<Object> responseUsuario = controller.buscarUsuarioPorId(usuario.getId());
+        ResponseEntity<Object> responseUsuario = controller.buscarUsuarioPorId(usuarioComId.getId());
 
-        assertEquals(ResponseEntity.ok(usuario), responseUsuario);
+        var resumo = (UsuarioResumoDto) responseUsuario.getBody();
+        assertEquals(usuarioComId.getId(), resumo.getId());
+        assertEquals(usuarioComId.getEmail(), resumo.getEmail());
+        assertEquals(usuarioComId.getLojaAssociada().getId(), resumo.getLojaAssociadaId());
 
     }
 
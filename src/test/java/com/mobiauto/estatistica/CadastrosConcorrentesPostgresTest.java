@@ -0,0 +1,95 @@
+package com.mobiauto.estatistica;
+
+import com.mobiauto.DadosTeste;
+import com.mobiauto.model.EstatisticaOportunidades;
+import com.mobiauto.service.OportunidadeService;
+import com.mobiauto.service.repository.EstatisticaOportunidadesRepository;
+import com.mobiauto.service.repository.OportunidadeRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.mobiauto.DadosTeste.cadastro;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Requer um PostgreSQL local vazio e descartável (o esquema é criado e removido pelo teste), por exemplo
+ * MOBIAUTO_TESTE_POSTGRES_URL=jdbc:postgresql://localhost:5432/db_teste, com MOBIAUTO_TESTE_POSTGRES_USUARIO e
+ * MOBIAUTO_TESTE_POSTGRES_SENHA. O H2 não reproduz as travas de chave estrangeira do PostgreSQL.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfEnvironmentVariable(named = "MOBIAUTO_TESTE_POSTGRES_URL", matches = ".+")
+public class CadastrosConcorrentesPostgresTest {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("MOBIAUTO_TESTE_POSTGRES_URL"));
+        registry.add("spring.datasource.username", () -> System.getenv("MOBIAUTO_TESTE_POSTGRES_USUARIO"));
+        registry.add("spring.datasource.password", () -> System.getenv("MOBIAUTO_TESTE_POSTGRES_SENHA"));
+    }
+
+    @Autowired
+    OportunidadeService oportunidadeService;
+
+    @Autowired
+    OportunidadeRepository oportunidadeRepository;
+
+    @Autowired
+    EstatisticaOportunidadesRepository estatisticaRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    DadosTeste dadosTeste;
+
+    @Test
+    void cadastrosConcorrentesNaMesmaRevenda() throws Exception {
+        var revenda = dadosTeste.salvarRevenda();
+        var assistente = dadosTeste.salvarAssistente(revenda, new Date());
+        // as duas transações inserem (FOR KEY SHARE na revenda) antes de qualquer uma chegar às gravações antes do commit
+        var inseridas = new CyclicBarrier(2);
+        var executor = Executors.newFixedThreadPool(2);
+
+        try {
+            var cadastros = new ArrayList<Future<Long>>();
+            for (int i = 0; i < 2; i++) {
+                cadastros.add(executor.submit(() -> transactionTemplate.execute(status -> {
+                    var oportunidade = oportunidadeService.save(cadastro(revenda.getId(), assistente.getId()));
+                    oportunidadeRepository.flush();
+                    aguardar(inseridas);
+                    return oportunidade.getId();
+                })));
+            }
+            for (var cadastro : cadastros) {
+                cadastro.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(2, estatisticaRepository.findByRevendaIdOrderByUsuarioId(revenda.getId()).stream()
+                .mapToLong(EstatisticaOportunidades::getNovas).sum());
+    }
+
+    private static void aguardar(CyclicBarrier barreira) {
+        try {
+            barreira.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
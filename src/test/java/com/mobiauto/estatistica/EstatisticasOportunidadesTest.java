@@ -0,0 +1,153 @@
+package com.mobiauto.estatistica;
+
+import com.mobiauto.DadosTeste;
+import com.mobiauto.dto.ContagemDiariaDto;
+import com.mobiauto.dto.EstatisticasDto;
+import com.mobiauto.enumerated.Status;
+import com.mobiauto.exception.ValidacaoException;
+import com.mobiauto.model.Revenda;
+import com.mobiauto.model.Usuario;
+import com.mobiauto.service.OportunidadeService;
+import com.mobiauto.service.estatistica.ReconstrucaoEstatisticas;
+import com.mobiauto.service.repository.ContagemDiariaOportunidadesRepository;
+import com.mobiauto.service.repository.EstatisticaOportunidadesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static com.mobiauto.DadosTeste.cadastro;
+import static com.mobiauto.DadosTeste.copia;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class EstatisticasOportunidadesTest {
+
+    @Autowired
+    OportunidadeService oportunidadeService;
+
+    @Autowired
+    ReconstrucaoEstatisticas reconstrucaoEstatisticas;
+
+    @Autowired
+    EstatisticaOportunidadesRepository estatisticaRepository;
+
+    @Autowired
+    ContagemDiariaOportunidadesRepository contagemDiariaRepository;
+
+    @Autowired
+    DadosTeste dadosTeste;
+
+    static final LocalDate HOJE = LocalDate.now(ZoneId.of("America/Sao_Paulo"));
+
+    Revenda revenda;
+
+    Usuario assistente1;
+
+    Usuario assistente2;
+
+    @BeforeEach
+    void setUp() {
+        revenda = dadosTeste.salvarRevenda();
+        assistente1 = dadosTeste.salvarAssistente(revenda, new Date());
+        assistente2 = dadosTeste.salvarAssistente(revenda, new Date());
+
+        var concluida = oportunidadeService.save(cadastro(revenda.getId(), assistente1.getId()));
+        oportunidadeService.save(cadastro(revenda.getId(), assistente1.getId()));
+        oportunidadeService.save(cadastro(revenda.getId(), assistente2.getId()));
+        oportunidadeService.receberParaAtendimento(cadastro(revenda.getId(), null),
+                DadosTeste.assistenteDaRevenda(revenda.getId()));
+
+        var edicao = copia(concluida);
+        edicao.setStatus(Status.CONCLUIDO);
+        edicao.setMotivoConclusao("Venda realizada");
+        edicao.setDataAtribuicao(HOJE.minusDays(4));
+        oportunidadeService.update(concluida.getId(), edicao);
+    }
+
+    @Test
+    void estatisticasIncrementais() {
+        var estatisticas = oportunidadeService.buscarEstatisticas(revenda.getId());
+
+        assertEstatisticas(estatisticas.getRevenda(), null, 3, 1, 0.25, 4.0);
+        assertEquals(3, estatisticas.getUsuarios().size());
+        assertEstatisticas(estatisticas.getUsuarios().get(0), null, 1, 0, 0.0, null);
+        assertEstatisticas(estatisticas.getUsuarios().get(1), assistente1.getId(), 1, 1, 0.5, 4.0);
+        assertEstatisticas(estatisticas.getUsuarios().get(2), assistente2.getId(), 1, 0, 0.0, null);
+    }
+
+    @Test
+    void reconstruirCorrigeDivergencias() {
+        estatisticaRepository.findByRevendaIdOrderByUsuarioId(revenda.getId()).forEach(linha -> {
+            linha.setNovas(100);
+            linha.setConcluidas(0);
+            estatisticaRepository.save(linha);
+        });
+
+        reconstrucaoEstatisticas.reconstruir(revenda.getId());
+
+        var estatisticas = oportunidadeService.buscarEstatisticas(revenda.getId());
+        assertEstatisticas(estatisticas.getRevenda(), null, 3, 1, 0.25, 4.0);
+        assertEstatisticas(estatisticas.getUsuarios().get(1), assistente1.getId(), 1, 1, 0.5, 4.0);
+    }
+
+    @Test
+    void serieDiaria() {
+        var cadastroAntigo = cadastro(revenda.getId(), assistente2.getId());
+        cadastroAntigo.setDataAtribuicao(HOJE.minusDays(10));
+        oportunidadeService.save(cadastroAntigo);
+
+        var serie = oportunidadeService.buscarSerieDiaria(revenda.getId(), null, null);
+
+        assertEquals(HOJE.minusDays(364), serie.getDe());
+        assertEquals(HOJE, serie.getAte());
+        assertEquals(365, serie.getDias().size());
+        assertContagem(serie.getDias().get(354), HOJE.minusDays(10), 1, 0);
+        assertContagem(serie.getDias().get(364), HOJE, 4, 1);
+        assertEquals(5, serie.getDias().stream().mapToLong(ContagemDiariaDto::getRecebidas).sum());
+
+        var periodo = oportunidadeService.buscarSerieDiaria(revenda.getId(), HOJE.minusDays(2), HOJE.plusDays(1));
+        assertEquals(List.of(0L, 0L, 4L, 0L), periodo.getDias().stream().map(ContagemDiariaDto::getRecebidas).toList());
+
+        assertThrows(ValidacaoException.class, () -> oportunidadeService.buscarSerieDiaria(revenda.getId(), HOJE, HOJE.minusDays(1)));
+        assertThrows(ValidacaoException.class, () -> oportunidadeService.buscarSerieDiaria(revenda.getId(), HOJE.minusDays(731), HOJE));
+    }
+
+    @Test
+    void reconstruirCorrigeContagensDiarias() {
+        contagemDiariaRepository.findByRevendaIdAndDiaBetweenOrderByDia(revenda.getId(), HOJE, HOJE).forEach(linha -> {
+            linha.setRecebidas(50);
+            linha.setConcluidas(50);
+            contagemDiariaRepository.save(linha);
+        });
+
+        reconstrucaoEstatisticas.reconstruir(revenda.getId());
+
+        var serie = oportunidadeService.buscarSerieDiaria(revenda.getId(), HOJE, HOJE);
+        assertContagem(serie.getDias().get(0), HOJE, 4, 1);
+    }
+
+    private static void assertContagem(ContagemDiariaDto contagem, LocalDate dia, long recebidas, long concluidas) {
+        assertEquals(dia, contagem.getDia());
+        assertEquals(recebidas, contagem.getRecebidas());
+        assertEquals(concluidas, contagem.getConcluidas());
+    }
+
+    private static void assertEstatisticas(EstatisticasDto estatisticas, Long usuarioAssociadoId, long novas, long concluidas,
+                                           Double taxaConversao, Double mediaDiasAteConclusao) {
+        assertEquals(usuarioAssociadoId, estatisticas.getUsuarioAssociadoId());
+        assertEquals(novas, estatisticas.getNovas());
+        assertEquals(0, estatisticas.getEmAtendimento());
+        assertEquals(concluidas, estatisticas.getConcluidas());
+        assertEquals(novas + concluidas, estatisticas.getTotal());
+        assertEquals(taxaConversao, estatisticas.getTaxaConversao());
+        assertEquals(mediaDiasAteConclusao, estatisticas.getMediaDiasAteConclusao());
+    }
+}
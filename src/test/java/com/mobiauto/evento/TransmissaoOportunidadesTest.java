@@ -0,0 +1,125 @@
+package com.mobiauto.evento;
+
+import com.mobiauto.DadosTeste;
+import com.mobiauto.dto.CadastroOportunidadeDto;
+import com.mobiauto.enumerated.Status;
+import com.mobiauto.security.TokenService;
+import com.mobiauto.service.OportunidadeService;
+import com.mobiauto.service.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+
+import static com.mobiauto.DadosTeste.copia;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class TransmissaoOportunidadesTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    TokenService tokenService;
+
+    @Autowired
+    OportunidadeService oportunidadeService;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    DadosTeste dadosTeste;
+
+    String token;
+
+    Long idAdministrador;
+
+    @BeforeEach
+    void setUp() {
+        var administrador = usuarioRepository.findByEmailFetchRoles("administrador@email.com");
+        idAdministrador = administrador.getId();
+        token = tokenService.emitir(administrador).valor();
+    }
+
+    @Test
+    void alteracoesDaRevendaDepoisDoCommit() throws Exception {
+        var resposta = inscrever();
+
+        var oportunidade = oportunidadeService.save(cadastro());
+        aguardar(resposta, "event:criada\ndata:{\"id\":" + oportunidade.getId() + ",\"status\":\"NOVO\"");
+
+        var edicao = copia(oportunidade);
+        edicao.setStatus(Status.EM_ATENDIMENTO);
+        oportunidadeService.update(oportunidade.getId(), edicao);
+        aguardar(resposta, "event:status-alterado\ndata:{\"id\":" + oportunidade.getId() + ",\"status\":\"EM_ATENDIMENTO\"");
+
+        oportunidadeService.delete(oportunidade.getId());
+        aguardar(resposta, "event:excluida\ndata:{\"id\":" + oportunidade.getId());
+    }
+
+    @Test
+    void somenteDaPropriaRevenda() throws Exception {
+        var resposta = inscrever();
+
+        var outraRevenda = dadosTeste.salvarRevenda();
+        var daOutraRevenda = oportunidadeService.receberParaAtendimento(cadastro(), DadosTeste.assistenteDaRevenda(outraRevenda.getId()));
+        var daRevenda = oportunidadeService.save(cadastro());
+
+        aguardar(resposta, "data:{\"id\":" + daRevenda.getId() + ",");
+        assertFalse(resposta.getContentAsString().contains("data:{\"id\":" + daOutraRevenda.getId() + ","));
+    }
+
+    @Test
+    void inscricaoComecaComRecarregar() throws Exception {
+        var resposta = inscrever();
+
+        assertTrue(resposta.getContentAsString().startsWith("event:recarregar"), resposta.getContentAsString());
+    }
+
+    @Test
+    void loteMaiorQueAFilaGeraRecarregar() throws Exception {
+        var resposta = inscrever();
+        var inicio = resposta.getContentAsString().length();
+
+        oportunidadeService.saveAll(Collections.nCopies(300, cadastro()));
+
+        for (int tentativa = 0; tentativa < 100 && !resposta.getContentAsString().substring(inicio).contains("event:recarregar"); tentativa++) {
+            Thread.sleep(50);
+        }
+        assertTrue(resposta.getContentAsString().substring(inicio).contains("event:recarregar"), resposta.getContentAsString());
+        assertFalse(resposta.getContentAsString().contains("event:criada"));
+    }
+
+    private MockHttpServletResponse inscrever() throws Exception {
+        var resposta = mockMvc.perform(get("/api/v1/oportunidades/revenda/eventos").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+        aguardar(resposta, "event:recarregar");
+        return resposta;
+    }
+
+    private static void aguardar(MockHttpServletResponse resposta, String trecho) throws Exception {
+        for (int tentativa = 0; tentativa < 100 && !resposta.getContentAsString().contains(trecho); tentativa++) {
+            Thread.sleep(50);
+        }
+        assertTrue(resposta.getContentAsString().contains(trecho), resposta.getContentAsString());
+    }
+
+    private CadastroOportunidadeDto cadastro() {
+        return DadosTeste.cadastro(1L, idAdministrador);
+    }
+}
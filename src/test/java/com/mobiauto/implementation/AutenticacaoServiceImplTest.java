@@ -0,0 +1,69 @@
+package com.mobiauto.implementation;
+
+import com.mobiauto.dto.LoginDto;
+import com.mobiauto.dto.TokenDto;
+import com.mobiauto.enumerated.Cargo;
+import com.mobiauto.exception.AutenticacaoException;
+import com.mobiauto.model.Usuario;
+import com.mobiauto.security.TokenService;
+import com.mobiauto.service.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AutenticacaoServiceImplTest {
+
+    @InjectMocks
+    com.mobiauto.service.implementation.AutenticacaoServiceImpl service;
+
+    @Mock
+    UsuarioRepository repository;
+
+    @Mock
+    TokenService tokenService;
+
+    Usuario usuario;
+
+    @BeforeEach
+    public void setUp() {
+        usuario = Usuario.builder()
+                .id(1L)
+                .email("teste@email.com")
+                .senha(new BCryptPasswordEncoder().encode("123"))
+                .cargo(Cargo.ADMINISTRADOR)
+                .build();
+    }
+
+    @Test
+    void login() {
+        var expiraEm = Instant.now();
+        when(repository.findByEmailFetchRoles(usuario.getEmail())).thenReturn(usuario);
+        when(tokenService.emitir(usuario)).thenReturn(new TokenService.Token("token", expiraEm));
+
+        TokenDto tokenDto = service.login(LoginDto.builder().email(usuario.getEmail()).senha("123").build());
+
+        assertEquals("token", tokenDto.getToken());
+        assertEquals("Bearer", tokenDto.getTipo());
+        assertEquals(expiraEm, tokenDto.getExpiraEm());
+    }
+
+    @Test
+    void loginComSenhaIncorreta() {
+        when(repository.findByEmailFetchRoles(usuario.getEmail())).thenReturn(usuario);
+
+        assertThrows(AutenticacaoException.class,
+                () -> service.login(LoginDto.builder().email(usuario.getEmail()).senha("errada").build()));
+        verifyNoInteractions(tokenService);
+    }
+}
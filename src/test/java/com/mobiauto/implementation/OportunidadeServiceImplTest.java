@@ -1,25 +1,53 @@
 package com.mobiauto.implementation;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mobiauto.dto.CadastroOportunidadeDto;
+import com.mobiauto.dto.ErroImportacaoDto;
+import com.mobiauto.dto.FiltroOportunidadeDto;
+import com.mobiauto.dto.OportunidadeResumoDto;
+import com.mobiauto.dto.PaginaDto;
 import com.mobiauto.enumerated.Cargo;
+import com.mobiauto.enumerated.FormatoArquivo;
 import com.mobiauto.enumerated.Status;
+import com.mobiauto.exception.EntidadeNaoEncontradaException;
+import com.mobiauto.exception.ValidacaoException;
 import com.mobiauto.model.Oportunidade;
 import com.mobiauto.model.Revenda;
+import com.mobiauto.model.Role;
 import com.mobiauto.model.Usuario;
+import com.mobiauto.security.UserPrincipal;
+import com.mobiauto.service.RevendaService;
+import com.mobiauto.service.UsuarioService;
+import com.mobiauto.service.atribuicao.IndiceAssistentesOciosos;
+import com.mobiauto.service.evento.OportunidadeAlterada;
 import com.mobiauto.service.repository.OportunidadeRepository;
+import com.mobiauto.util.PaginacaoUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,12 +58,32 @@ public class OportunidadeServiceImplTest {
     @Mock
     OportunidadeRepository repository;
 
+    @Mock
+    UsuarioService usuarioService;
+
+    @Mock
+    RevendaService revendaService;
+
+    @Mock
+    IndiceAssistentesOciosos indiceAssistentesOciosos;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     Oportunidade oportunidade;
 
     Oportunidade oportunidadeComId;
 
     List<Oportunidade> oportunidades = new ArrayList<>();
 
+    List<OportunidadeResumoDto> resumos = new ArrayList<>();
+
     @BeforeEach
     public void setUp() {
         oportunidade = Oportunidade.builder()
@@ -78,6 +126,7 @@ public class OportunidadeServiceImplTest {
                 .build();
 
         oportunidades.add(oportunidade);
+        resumos.add(OportunidadeResumoDto.de(oportunidade));
     }
 
     @Test
@@ -93,37 +142,156 @@ public class OportunidadeServiceImplTest {
 
     @Test
     void findAll() {
-        when(repository.findAll()).thenReturn(oportunidades);
+        when(repository.buscarResumos(0L, Limit.of(PaginacaoUtil.LIMITE_PADRAO + 1))).thenReturn(resumos);
 
-        List<Oportunidade> listOportunidades = service.findAll();
+        PaginaDto<OportunidadeResumoDto> pagina = service.findAll(null, null);
 
-        assertEquals(oportunidades, listOportunidades);
-        verify(repository).findAll();
+        assertEquals(resumos, pagina.getItens());
+        assertNull(pagina.getProximo());
+        verify(repository).buscarResumos(0L, Limit.of(PaginacaoUtil.LIMITE_PADRAO + 1));
         verifyNoMoreInteractions(repository);
     }
 
     @Test
     void findAllInRevenda() {
-        when(repository.findAll().stream().filter(u -> Objects.equals((u.getLojaAssociada() != null) ? u.getLojaAssociada().getId() : null, oportunidade.getLojaAssociada().getId())).toList()).thenReturn(oportunidades);
+        when(repository.findByLojaAssociadaId(oportunidade.getLojaAssociada().getId())).thenReturn(oportunidades);
 
         List<Oportunidade> listOportunidades = service.findAllInRevenda(oportunidade.getLojaAssociada().getId());
 
         assertEquals(oportunidades, listOportunidades);
-        verify(repository).findAll();
+        verify(repository).findByLojaAssociadaId(oportunidade.getLojaAssociada().getId());
         verifyNoMoreInteractions(repository);
     }
 
     @Test
     void update() {
-        when(repository.findById(oportunidade.getId())).thenReturn(Optional.of(oportunidade));
+        when(repository.findParaEdicaoById(oportunidade.getId())).thenReturn(Optional.of(oportunidade));
         when(repository.save(oportunidade)).thenReturn(oportunidade);
 
         Oportunidade oportunidadeRetornado = service.update(oportunidade.getId(), oportunidade);
         assertEquals(Optional.of(oportunidade).get(), oportunidadeRetornado);
 
         verify(repository).save(oportunidade);
-        verify(repository).findById(oportunidade.getId());
+        verify(repository).findParaEdicaoById(oportunidade.getId());
+        verify(eventPublisher).publishEvent(any(OportunidadeAlterada.class));
         verifyNoMoreInteractions(repository);
     }
 
-}
\ No newline at end of file
+    @Test
+    void saveAll() {
+        var revenda = oportunidade.getLojaAssociada();
+        var usuario = oportunidade.getUsuarioAssociado();
+        var cadastros = List.of(
+                CadastroOportunidadeDto.builder().nomeCliente("Cliente 1").lojaAssociadaId(revenda.getId()).usuarioAssociadoId(usuario.getId()).build(),
+                CadastroOportunidadeDto.builder().nomeCliente("Cliente 2").lojaAssociadaId(revenda.getId()).usuarioAssociadoId(usuario.getId()).build(),
+                CadastroOportunidadeDto.builder().nomeCliente("Cliente 3").lojaAssociadaId(revenda.getId()).build());
+        when(revendaService.findById(revenda.getId())).thenReturn(revenda);
+        when(usuarioService.findById(usuario.getId())).thenReturn(usuario);
+        when(repository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<OportunidadeResumoDto> resumos = service.saveAll(cadastros);
+
+        assertEquals(3, resumos.size());
+        assertEquals(Status.NOVO, resumos.get(0).getStatus());
+        assertEquals(usuario.getId(), resumos.get(1).getUsuarioAssociadoId());
+        assertNull(resumos.get(2).getUsuarioAssociadoId());
+        assertNull(resumos.get(2).getDataAtribuicao());
+        verify(revendaService, times(1)).findById(revenda.getId());
+        verify(usuarioService, times(1)).findById(usuario.getId());
+    }
+
+    @Test
+    void importarComFalhaNoMeioDoLote() {
+        var linha = "{\"nomeCliente\":\"Cliente\",\"emailCliente\":\"cliente@email.com\",\"telefoneCliente\":\"912345678\","
+                + "\"marcaVeiculo\":\"Mobi\",\"modeloVeiculo\":\"Mobicar\",\"versaoVeiculo\":\"1.0\",\"anoVeiculo\":2018,";
+        var ndjson = linha + "\"lojaAssociadaId\":999}\n"
+                + linha + "\"lojaAssociadaId\":1,\"usuarioAssociadoId\":1}\n"
+                + linha + "\"lojaAssociadaId\":1,\"usuarioAssociadoId\":2}\n"
+                + linha + "\"lojaAssociadaId\":1,\"usuarioAssociadoId\":1}\n";
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(revendaService.findById(999L)).thenThrow(new EntidadeNaoEncontradaException("Revenda não encontrada."));
+        when(revendaService.findById(1L)).thenReturn(oportunidade.getLojaAssociada());
+        when(usuarioService.findById(1L)).thenReturn(oportunidade.getUsuarioAssociado());
+        when(usuarioService.findById(2L)).thenThrow(new IllegalStateException("conexão perdida"));
+
+        var resultado = service.importar(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), FormatoArquivo.NDJSON);
+
+        assertEquals(4, resultado.getLinhasProcessadas());
+        assertEquals(0, resultado.getImportadas());
+        assertEquals(4, resultado.getComErro());
+        assertEquals(List.of(1L, 2L, 3L, 4L), resultado.getErros().stream().map(ErroImportacaoDto::getLinha).toList());
+        assertEquals("Revenda 999 não encontrada.", resultado.getErros().get(0).getMensagem());
+        assertEquals("Falha ao gravar o lote desta linha: conexão perdida", resultado.getErros().get(3).getMensagem());
+        verify(repository, never()).saveAll(any());
+    }
+
+    @Test
+    void saveAllVazio() {
+        assertThrows(ValidacaoException.class, () -> service.saveAll(List.of()));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void editarOportunidadeAssociada() {
+        var userPrincipal = UserPrincipal.create(Usuario.builder()
+                .id(1L)
+                .email("funcionario@email.com")
+                .cargo(Cargo.ASSISTENTE)
+                .roles(List.of(Role.builder().id(4L).name("NIVEL_ASSISTENTE").build()))
+                .build());
+        when(repository.findParaEdicaoById(oportunidadeComId.getId())).thenReturn(Optional.of(oportunidadeComId));
+        when(repository.save(oportunidadeComId)).thenReturn(oportunidadeComId);
+
+        Oportunidade oportunidadeRetornado = service.editarOportunidadeAssociada(oportunidadeComId.getId(), oportunidade, userPrincipal);
+
+        assertEquals(oportunidadeComId, oportunidadeRetornado);
+        verify(repository, never()).findById(oportunidadeComId.getId());
+        verifyNoInteractions(usuarioService);
+    }
+
+    @Test
+    void pesquisarOportunidadesDaRevenda() {
+        var userPrincipal = UserPrincipal.create(1L, "funcionario@email.com", Cargo.ASSISTENTE, 1L, List.of("ROLE_NIVEL_ASSISTENTE"));
+        var filtro = FiltroOportunidadeDto.builder().status(Status.NOVO).marcaVeiculo("Mobi").build();
+        when(repository.pesquisarResumos(any(Specification.class), eq(PaginacaoUtil.LIMITE_PADRAO + 1))).thenReturn(resumos);
+
+        PaginaDto<OportunidadeResumoDto> pagina = service.pesquisarOportunidadesDaRevenda(userPrincipal, filtro, null, null);
+
+        assertEquals(resumos, pagina.getItens());
+        assertNull(pagina.getProximo());
+    }
+
+    @Test
+    void pesquisarOportunidadesSemRevenda() {
+        var userPrincipal = UserPrincipal.create(1L, "funcionario@email.com", Cargo.ASSISTENTE, null, List.of("ROLE_NIVEL_ASSISTENTE"));
+
+        assertThrows(ValidacaoException.class,
+                () -> service.pesquisarOportunidadesDaRevenda(userPrincipal, new FiltroOportunidadeDto(), null, null));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void buscarTextoNaRevenda() {
+        var userPrincipal = UserPrincipal.create(1L, "funcionario@email.com", Cargo.ASSISTENTE, 1L, List.of("ROLE_NIVEL_ASSISTENTE"));
+        when(repository.buscarTextoNaRevenda(1L, "joão:* & 98765:* & mobi:*", 50)).thenReturn(oportunidades);
+
+        List<OportunidadeResumoDto> listOportunidades = service.buscarTextoNaRevenda(userPrincipal, "João (98765) Mobi", null);
+
+        assertEquals(1, listOportunidades.size());
+        assertEquals(oportunidade.getNomeCliente(), listOportunidades.get(0).getNomeCliente());
+        assertEquals(oportunidade.getLojaAssociada().getId(), listOportunidades.get(0).getLojaAssociadaId());
+        assertEquals(oportunidade.getUsuarioAssociado().getId(), listOportunidades.get(0).getUsuarioAssociadoId());
+    }
+
+    @Test
+    void buscarTextoSemTermos() {
+        var userPrincipal = UserPrincipal.create(1L, "funcionario@email.com", Cargo.ASSISTENTE, 1L, List.of("ROLE_NIVEL_ASSISTENTE"));
+
+        assertThrows(ValidacaoException.class, () -> service.buscarTextoNaRevenda(userPrincipal, " &:* ", null));
+        verifyNoInteractions(repository);
+    }
+
+}
@@ -1,19 +1,27 @@
 package com.mobiauto.implementation;
 
+import com.mobiauto.dto.PaginaDto;
+import com.mobiauto.exception.ValidacaoException;
 import com.mobiauto.model.Revenda;
+import com.mobiauto.service.cache.CacheRevendas;
+import com.mobiauto.service.invalidacao.BarramentoInvalidacao;
 import com.mobiauto.service.repository.RevendaRepository;
+import com.mobiauto.util.PaginacaoUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +33,12 @@ public class RevendaServiceImplTest {
     @Mock
     RevendaRepository repository;
 
+    @Mock
+    CacheRevendas cacheRevendas;
+
+    @Mock
+    BarramentoInvalidacao barramentoInvalidacao;
+
     Revenda revenda;
 
     Revenda revendaComId;
@@ -48,35 +62,77 @@ public class RevendaServiceImplTest {
 
     @Test
     void findById() {
-        when(repository.findById(revenda.getId())).thenReturn(Optional.of(revenda));
+        when(cacheRevendas.buscarPorId(revenda.getId())).thenReturn(Optional.of(revenda));
 
         Revenda revendaRetornado = service.findById(revenda.getId());
 
         assertEquals(Optional.of(revenda).get(), revendaRetornado);
-        verify(repository).findById(revenda.getId());
-        verifyNoMoreInteractions(repository);
+        verify(cacheRevendas).buscarPorId(revenda.getId());
+        verifyNoInteractions(repository);
     }
 
     @Test
     void findByIdCnpj() {
-        when(repository.findByCnpj(revenda.getCnpj())).thenReturn(revenda);
+        when(cacheRevendas.buscarPorCnpj(revenda.getCnpj())).thenReturn(revenda);
 
         Revenda revendaRetornado = service.findByCnpj(revenda.getCnpj());
 
         assertEquals(Optional.of(revenda).get(), revendaRetornado);
-        verify(repository).findByCnpj(revenda.getCnpj());
-        verifyNoMoreInteractions(repository);
+        verify(cacheRevendas).buscarPorCnpj(revenda.getCnpj());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void updateInvalidaCache() {
+        var edicao = Revenda.builder().cnpj("11111111111111").nomeSocial("Outro nome").build();
+        when(repository.findById(revendaComId.getId())).thenReturn(Optional.of(revendaComId));
+        when(repository.save(revendaComId)).thenReturn(revendaComId);
+
+        Revenda revendaRetornado = service.update(revendaComId.getId(), edicao);
+
+        assertEquals("11111111111111", revendaRetornado.getCnpj());
+        assertEquals("Outro nome", revendaRetornado.getNomeSocial());
+        verify(barramentoInvalidacao).revenda(revendaComId.getId());
+    }
+
+    @Test
+    void deleteInvalidaCache() {
+        when(repository.existsById(revendaComId.getId())).thenReturn(true);
+
+        service.delete(revendaComId.getId());
+
+        verify(repository).deleteById(revendaComId.getId());
+        verify(barramentoInvalidacao).revenda(revendaComId.getId());
     }
 
     @Test
     void findAll() {
-        when(repository.findAll()).thenReturn(revendas);
+        when(repository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(PaginacaoUtil.LIMITE_PADRAO + 1))).thenReturn(revendas);
 
-        List<Revenda> listRevendas = service.findAll();
+        PaginaDto<Revenda> pagina = service.findAll(null, null);
 
-        assertEquals(revendas, listRevendas);
-        verify(repository).findAll();
+        assertEquals(revendas, pagina.getItens());
+        assertNull(pagina.getProximo());
+        verify(repository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(PaginacaoUtil.LIMITE_PADRAO + 1));
         verifyNoMoreInteractions(repository);
     }
 
+    @Test
+    void findAllComProximaPagina() {
+        revendas.add(revendaComId);
+        var cursor = PaginacaoUtil.codificarCursor(10L);
+        when(repository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(2))).thenReturn(revendas);
+
+        PaginaDto<Revenda> pagina = service.findAll(cursor, 1);
+
+        assertEquals(List.of(revenda), pagina.getItens());
+        assertEquals(PaginacaoUtil.codificarCursor(revenda.getId()), pagina.getProximo());
+    }
+
+    @Test
+    void findAllComCursorInvalido() {
+        assertThrows(ValidacaoException.class, () -> service.findAll("invalido", null));
+        verifyNoInteractions(repository);
+    }
+
 }
\ No newline at end of file
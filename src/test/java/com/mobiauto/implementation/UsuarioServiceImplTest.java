@@ -1,23 +1,29 @@
 package com.mobiauto.implementation;
 
+import com.mobiauto.dto.PaginaDto;
+import com.mobiauto.dto.UsuarioResumoDto;
 import com.mobiauto.enumerated.Cargo;
 import com.mobiauto.model.Revenda;
 import com.mobiauto.model.Usuario;
-import com.mobiauto.service.repository.RoleRepository;
+import com.mobiauto.service.atribuicao.IndiceAssistentesOciosos;
+import com.mobiauto.service.cache.CacheRoles;
+import com.mobiauto.service.invalidacao.BarramentoInvalidacao;
 import com.mobiauto.service.repository.UsuarioRepository;
+import com.mobiauto.util.PaginacaoUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,7 +36,14 @@ public class UsuarioServiceImplTest {
     UsuarioRepository repository;
 
     @Mock
-    RoleRepository roleRepository;
+    CacheRoles cacheRoles;
+
+    @Mock
+    IndiceAssistentesOciosos indiceAssistentesOciosos;
+
+    @Mock
+    BarramentoInvalidacao barramentoInvalidacao;
+
     Usuario usuario;
 
     Usuario usuarioComId;
@@ -100,23 +113,25 @@ public class UsuarioServiceImplTest {
 
     @Test
     void findAll() {
-        when(repository.findAll()).thenReturn(usuarios);
+        var resumos = List.of(UsuarioResumoDto.de(usuarioComId));
+        when(repository.buscarResumos(0L, Limit.of(PaginacaoUtil.LIMITE_PADRAO + 1))).thenReturn(resumos);
 
-        List<Usuario> listUsuarios = service.findAll();
+        PaginaDto<UsuarioResumoDto> pagina = service.findAll(null, null);
 
-        assertEquals(usuarios, listUsuarios);
-        verify(repository).findAll();
+        assertEquals(resumos, pagina.getItens());
+        assertNull(pagina.getProximo());
+        verify(repository).buscarResumos(0L, Limit.of(PaginacaoUtil.LIMITE_PADRAO + 1));
         verifyNoMoreInteractions(repository);
     }
 
     @Test
     void findAllInRevenda() {
-        when(repository.findAll().stream().filter(u -> Objects.equals((u.getLojaAssociada() != null) ? u.getLojaAssociada().getId() : null, usuario.getLojaAssociada().getId())).toList()).thenReturn(usuarios);
+        when(repository.findByLojaAssociadaId(usuario.getLojaAssociada().getId())).thenReturn(usuarios);
 
         List<Usuario> listUsuarios = service.findAllInRevenda(usuario.getLojaAssociada().getId());
 
         assertEquals(usuarios, listUsuarios);
-        verify(repository).findAll();
+        verify(repository).findByLojaAssociadaId(usuario.getLojaAssociada().getId());
         verifyNoMoreInteractions(repository);
     }
 
@@ -128,19 +143,30 @@ public class UsuarioServiceImplTest {
         assertEquals(usuario, usuarioRetornado);
 
         verify(repository).save(usuario);
-        verify(roleRepository).findAll();
+        verify(cacheRoles).buscarPorCargo(usuario.getCargo());
         verifyNoMoreInteractions(repository);
     }
 
     @Test
     void update() {
         when(repository.findByEmail(usuario.getEmail())).thenReturn(usuario);
-        when(repository.findById(usuario.getId())).thenReturn(Optional.of(usuario));
+        when(repository.findParaEdicaoById(usuario.getId())).thenReturn(Optional.of(usuario));
         when(repository.save(usuario)).thenReturn(usuario);
 
         Usuario usuarioRetornado = service.update(usuario.getId(), usuario);
         assertEquals(Optional.of(usuario).get(), usuarioRetornado);
+        verify(barramentoInvalidacao).usuario(usuario.getId());
+    }
+
+    @Test
+    void delete() {
+        when(repository.findById(usuarioComId.getId())).thenReturn(Optional.of(usuarioComId));
+
+        service.delete(usuarioComId.getId());
 
+        verify(repository).delete(usuarioComId);
+        verify(barramentoInvalidacao).usuario(usuarioComId.getId());
+        verify(barramentoInvalidacao).versaoRevenda(usuarioComId.getLojaAssociada().getId());
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,182 @@
+package com.mobiauto.invalidacao;
+
+import com.mobiauto.security.CacheCredenciais;
+import com.mobiauto.service.cache.CacheRevendas;
+import com.mobiauto.service.evento.OportunidadeAlterada;
+import com.mobiauto.service.evento.TransmissaoOportunidades;
+import com.mobiauto.service.invalidacao.BarramentoInvalidacao;
+import com.mobiauto.service.versao.VersoesRevenda;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.mockito.ArgumentCaptor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.DriverManager;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class BarramentoInvalidacaoTest {
+
+    private static final String CANAL = "mobiauto_invalidacao";
+
+    JdbcTemplate jdbcTemplate;
+
+    CacheCredenciais cacheCredenciais;
+
+    CacheRevendas cacheRevendas;
+
+    VersoesRevenda versoesRevenda;
+
+    TransmissaoOportunidades transmissaoOportunidades;
+
+    BarramentoInvalidacao barramento;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        cacheCredenciais = mock(CacheCredenciais.class);
+        cacheRevendas = mock(CacheRevendas.class);
+        versoesRevenda = mock(VersoesRevenda.class);
+        transmissaoOportunidades = mock(TransmissaoOportunidades.class);
+        barramento = novoBarramento(jdbcTemplate);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void revendaInvalidaLocalmenteENotifica() {
+        barramento.revenda(3L);
+
+        verify(cacheRevendas).invalidar(3L);
+        var mensagem = mensagensEnviadas(1)[0];
+        assertTrue(mensagem.endsWith("|REVENDA:3"));
+    }
+
+    @Test
+    void transacaoEnviaUmaMensagemNoCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        barramento.usuario(1L);
+        barramento.aoAlterarOportunidade(new OportunidadeAlterada(10L, situacao(2L), situacao(2L)));
+        barramento.aoAlterarOportunidade(new OportunidadeAlterada(11L, null, situacao(5L)));
+
+        verify(cacheCredenciais).invalidar(1L);
+        verify(versoesRevenda, times(2)).incrementar(2L);
+        verifyNoInteractions(jdbcTemplate);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(sincronizacao -> sincronizacao.beforeCommit(false));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        var mensagem = mensagensEnviadas(1)[0];
+        assertTrue(mensagem.endsWith("|USUARIO:1,VERSAO_REVENDA:2,VERSAO_REVENDA:5"));
+    }
+
+    @Test
+    void rollbackNaoNotifica() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        barramento.revenda(3L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void receberDeOutraInstancia() {
+        barramento.receber("outra|USUARIO:1,REVENDA:3,VERSAO_REVENDA:5,DESCONHECIDO:7,REVENDA:x");
+
+        verify(cacheCredenciais).invalidar(1L);
+        verify(cacheRevendas).invalidar(3L);
+        verify(versoesRevenda).incrementar(5L);
+        verify(transmissaoOportunidades).recarregar(5L);
+        verifyNoMoreInteractions(cacheCredenciais, cacheRevendas, versoesRevenda, transmissaoOportunidades);
+    }
+
+    @Test
+    void ignorarMensagemPropria() {
+        barramento.revenda(3L);
+        var mensagem = mensagensEnviadas(1)[0];
+        reset(cacheRevendas);
+
+        barramento.receber(mensagem);
+
+        verifyNoInteractions(cacheRevendas);
+    }
+
+    @Test
+    void dividirMensagensGrandes() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        for (long id = 1; id <= 1000; id++) {
+            barramento.revenda(id);
+        }
+        TransactionSynchronizationManager.getSynchronizations().forEach(sincronizacao -> sincronizacao.beforeCommit(false));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        var captor = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, atLeast(2)).query(anyString(), any(RowCallbackHandler.class), eq(CANAL), captor.capture());
+        assertTrue(captor.getAllValues().stream().allMatch(mensagem -> mensagem.length() <= 7000));
+        assertEquals(1000, captor.getAllValues().stream()
+                .mapToInt(mensagem -> mensagem.substring(mensagem.indexOf('|') + 1).split(",").length).sum());
+    }
+
+    /**
+     * Requer um PostgreSQL local, por exemplo MOBIAUTO_TESTE_POSTGRES_URL=jdbc:postgresql://localhost:5432/db_alga,
+     * com MOBIAUTO_TESTE_POSTGRES_USUARIO e MOBIAUTO_TESTE_POSTGRES_SENHA.
+     */
+    @Test
+    @EnabledIfEnvironmentVariable(named = "MOBIAUTO_TESTE_POSTGRES_URL", matches = ".+")
+    void notificarOutraInstanciaPeloPostgres() throws Exception {
+        var url = System.getenv("MOBIAUTO_TESTE_POSTGRES_URL");
+        var usuario = System.getenv("MOBIAUTO_TESTE_POSTGRES_USUARIO");
+        var senha = System.getenv("MOBIAUTO_TESTE_POSTGRES_SENHA");
+        var outraInstancia = novoBarramento(jdbcTemplate);
+
+        try (var conexao = DriverManager.getConnection(url, usuario, senha)) {
+            try (var statement = conexao.createStatement()) {
+                statement.execute("LISTEN " + CANAL);
+            }
+            novoBarramento(new JdbcTemplate(new DriverManagerDataSource(url, usuario, senha))).revenda(3L);
+
+            var notificacoes = conexao.unwrap(PGConnection.class).getNotifications(5000);
+            assertNotNull(notificacoes);
+            reset(cacheRevendas);
+            Arrays.stream(notificacoes).forEach(notificacao -> outraInstancia.receber(notificacao.getParameter()));
+        }
+
+        verify(cacheRevendas).invalidar(3L);
+    }
+
+    private BarramentoInvalidacao novoBarramento(JdbcTemplate jdbcTemplate) {
+        return new BarramentoInvalidacao(jdbcTemplate, cacheCredenciais, cacheRevendas, versoesRevenda,
+                transmissaoOportunidades, new SimpleMeterRegistry(), true, CANAL);
+    }
+
+    private String[] mensagensEnviadas(int quantidade) {
+        var captor = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(quantidade)).query(eq("select pg_notify(?, ?)"), any(RowCallbackHandler.class), eq(CANAL), captor.capture());
+        return captor.getAllValues().toArray(String[]::new);
+    }
+
+    private static OportunidadeAlterada.Situacao situacao(Long idRevenda) {
+        return new OportunidadeAlterada.Situacao(idRevenda, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,118 @@
+package com.mobiauto.security;
+
+import com.mobiauto.enumerated.Cargo;
+import com.mobiauto.model.Role;
+import com.mobiauto.model.Usuario;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheCredenciaisTest {
+
+    private static final String EMAIL = "teste@email.com";
+    private static final String SENHA = "123";
+
+    SimpleMeterRegistry meterRegistry;
+
+    CacheCredenciais cache;
+
+    UserPrincipal userPrincipal;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new CacheCredenciais(meterRegistry, 100, Duration.ofMinutes(5));
+
+        userPrincipal = UserPrincipal.create(Usuario.builder()
+                .id(1L)
+                .email(EMAIL)
+                .senha("hash")
+                .cargo(Cargo.ADMINISTRADOR)
+                .roles(List.of(Role.builder().id(1L).name("NIVEL_ADMINISTRADOR").build()))
+                .build());
+    }
+
+    @Test
+    void buscarCredencialRegistrada() {
+        cache.registrar(EMAIL, SENHA, 1L, userPrincipal, cache.geracao());
+
+        assertSame(userPrincipal, cache.buscar(EMAIL, SENHA));
+        assertEquals(1.0, meterRegistry.counter("mobiauto.auth.cache", "resultado", "acerto").count());
+    }
+
+    @Test
+    void buscarComSenhaDiferente() {
+        cache.registrar(EMAIL, SENHA, 1L, userPrincipal, cache.geracao());
+
+        assertNull(cache.buscar(EMAIL, "outra"));
+        assertEquals(1.0, meterRegistry.counter("mobiauto.auth.cache", "resultado", "falha").count());
+    }
+
+    @Test
+    void invalidarPorUsuario() {
+        cache.registrar(EMAIL, SENHA, 1L, userPrincipal, cache.geracao());
+
+        cache.invalidar(1L);
+
+        assertNull(cache.buscar(EMAIL, SENHA));
+    }
+
+    @Test
+    void invalidarSomenteOUsuario() {
+        cache.registrar(EMAIL, SENHA, 1L, userPrincipal, cache.geracao());
+        cache.registrar("outro@email.com", SENHA, 2L, userPrincipal, cache.geracao());
+
+        cache.invalidar(1L);
+
+        assertNull(cache.buscar(EMAIL, SENHA));
+        assertSame(userPrincipal, cache.buscar("outro@email.com", SENHA));
+    }
+
+    @Test
+    void invalidarEmailRegistradoPorOutroUsuario() {
+        cache.registrar(EMAIL, SENHA, 1L, userPrincipal, cache.geracao());
+        cache.registrar(EMAIL, SENHA, 2L, userPrincipal, cache.geracao());
+
+        cache.invalidar(1L);
+        assertSame(userPrincipal, cache.buscar(EMAIL, SENHA));
+
+        cache.invalidar(2L);
+        assertNull(cache.buscar(EMAIL, SENHA));
+    }
+
+    @Test
+    void invalidarEntreConsultaERegistro() {
+        var geracao = cache.geracao();
+        // a senha muda e o usuário é invalidado enquanto a autenticação ainda verifica a senha antiga
+        cache.invalidar(1L);
+        cache.registrar(EMAIL, SENHA, 1L, userPrincipal, geracao);
+
+        assertNull(cache.buscar(EMAIL, SENHA));
+
+        cache.registrar(EMAIL, SENHA, 1L, userPrincipal, cache.geracao());
+        assertSame(userPrincipal, cache.buscar(EMAIL, SENHA));
+    }
+
+    @Test
+    void invalidarTudoEntreConsultaERegistro() {
+        var geracao = cache.geracao();
+        cache.invalidarTudo();
+        cache.registrar(EMAIL, SENHA, 1L, userPrincipal, geracao);
+
+        assertNull(cache.buscar(EMAIL, SENHA));
+    }
+
+    @Test
+    void invalidarOutroUsuarioNaoImpedeRegistro() {
+        var geracao = cache.geracao();
+        cache.invalidar(2L);
+        cache.registrar(EMAIL, SENHA, 1L, userPrincipal, geracao);
+
+        assertSame(userPrincipal, cache.buscar(EMAIL, SENHA));
+    }
+}
@@ -0,0 +1,74 @@
+package com.mobiauto.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mobiauto.enumerated.Cargo;
+import com.mobiauto.model.Revenda;
+import com.mobiauto.model.Role;
+import com.mobiauto.model.Usuario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenServiceTest {
+
+    private static final String SEGREDO = "c2VncmVkby1kZS10ZXN0ZS1jb20tMzItYnl0ZXMtISE=";
+    private static final Instant AGORA = Instant.parse("2024-07-01T12:00:00Z");
+
+    TokenService tokenService;
+
+    Usuario usuario;
+
+    @BeforeEach
+    public void setUp() {
+        tokenService = new TokenService(new ObjectMapper(), SEGREDO, Duration.ofMinutes(15), Clock.fixed(AGORA, ZoneOffset.UTC));
+
+        usuario = Usuario.builder()
+                .id(1L)
+                .email("teste@email.com")
+                .senha("hash")
+                .cargo(Cargo.GERENTE)
+                .lojaAssociada(Revenda.builder().id(2L).build())
+                .roles(List.of(Role.builder().id(3L).name("NIVEL_GERENTE").build()))
+                .build();
+    }
+
+    @Test
+    void emitirEValidar() {
+        var token = tokenService.emitir(usuario);
+
+        UserPrincipal userPrincipal = tokenService.validar(token.valor());
+
+        assertEquals(AGORA.plus(Duration.ofMinutes(15)), token.expiraEm());
+        assertEquals("teste@email.com", userPrincipal.getUsername());
+        assertEquals(1L, userPrincipal.getId());
+        assertEquals(Cargo.GERENTE, userPrincipal.getCargo());
+        assertEquals(2L, userPrincipal.getRevendaId());
+        assertNull(userPrincipal.getPassword());
+        assertEquals(List.of("ROLE_NIVEL_GERENTE"), userPrincipal.getAuthorityNames());
+    }
+
+    @Test
+    void validarTokenAdulterado() {
+        var token = tokenService.emitir(usuario).valor();
+        var adulterado = token.substring(0, token.indexOf('.') - 1) + "A" + token.substring(token.indexOf('.'));
+
+        assertNull(tokenService.validar(adulterado));
+        assertNull(tokenService.validar("invalido"));
+    }
+
+    @Test
+    void validarTokenExpirado() {
+        var token = tokenService.emitir(usuario).valor();
+        var depois = new TokenService(new ObjectMapper(), SEGREDO, Duration.ofMinutes(15),
+                Clock.fixed(AGORA.plus(Duration.ofMinutes(16)), ZoneOffset.UTC));
+
+        assertNull(depois.validar(token));
+    }
+}
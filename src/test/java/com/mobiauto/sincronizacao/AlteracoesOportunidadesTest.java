@@ -0,0 +1,143 @@
+package com.mobiauto.sincronizacao;
+
+import com.mobiauto.DadosTeste;
+import com.mobiauto.dto.AlteracoesDto;
+import com.mobiauto.dto.OportunidadeResumoDto;
+import com.mobiauto.exception.ValidacaoException;
+import com.mobiauto.model.Revenda;
+import com.mobiauto.security.UserPrincipal;
+import com.mobiauto.service.OportunidadeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.mobiauto.DadosTeste.cadastro;
+import static com.mobiauto.DadosTeste.copia;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AlteracoesOportunidadesTest {
+
+    @Autowired
+    OportunidadeService oportunidadeService;
+
+    @Autowired
+    DadosTeste dadosTeste;
+
+    Revenda revenda;
+
+    Revenda outraRevenda;
+
+    UserPrincipal userPrincipal;
+
+    UserPrincipal userPrincipalOutraRevenda;
+
+    @BeforeEach
+    void setUp() {
+        revenda = dadosTeste.salvarRevenda();
+        outraRevenda = dadosTeste.salvarRevenda();
+        userPrincipal = DadosTeste.assistenteDaRevenda(revenda.getId());
+        userPrincipalOutraRevenda = DadosTeste.assistenteDaRevenda(outraRevenda.getId());
+    }
+
+    @Test
+    void alteracoesDepoisDoCursor() {
+        var primeira = oportunidadeService.receberParaAtendimento(cadastro(null, null), userPrincipal);
+        var segunda = oportunidadeService.receberParaAtendimento(cadastro(null, null), userPrincipal);
+
+        var inicial = oportunidadeService.buscarAlteracoesDaRevenda(userPrincipal, null, null);
+        assertEquals(List.of(primeira.getId(), segunda.getId()), ids(inicial));
+        assertEquals(List.of(), inicial.getExcluidas());
+        assertFalse(inicial.getTemMais());
+
+        var semAlteracoes = oportunidadeService.buscarAlteracoesDaRevenda(userPrincipal, inicial.getCursor(), null);
+        assertEquals(List.of(), ids(semAlteracoes));
+        assertEquals(inicial.getCursor(), semAlteracoes.getCursor());
+
+        var edicao = copia(primeira);
+        edicao.setNomeCliente("Outro nome");
+        oportunidadeService.update(primeira.getId(), edicao);
+        oportunidadeService.delete(segunda.getId());
+        var terceira = oportunidadeService.receberParaAtendimento(cadastro(null, null), userPrincipal);
+
+        var alteracoes = oportunidadeService.buscarAlteracoesDaRevenda(userPrincipal, inicial.getCursor(), null);
+        assertEquals(List.of(primeira.getId(), terceira.getId()), ids(alteracoes));
+        assertEquals("Outro nome", alteracoes.getAlteradas().get(0).getNomeCliente());
+        assertEquals(List.of(segunda.getId()), alteracoes.getExcluidas());
+
+        var outraRevendaInicial = oportunidadeService.buscarAlteracoesDaRevenda(userPrincipalOutraRevenda, null, null);
+        assertEquals(List.of(), ids(outraRevendaInicial));
+        assertEquals(List.of(), outraRevendaInicial.getExcluidas());
+    }
+
+    @Test
+    void transferenciaEntreRevendas() {
+        var oportunidade = oportunidadeService.receberParaAtendimento(cadastro(null, null), userPrincipal);
+        var cursor = oportunidadeService.buscarAlteracoesDaRevenda(userPrincipal, null, null).getCursor();
+        var cursorOutraRevenda = oportunidadeService.buscarAlteracoesDaRevenda(userPrincipalOutraRevenda, null, null).getCursor();
+
+        var edicao = copia(oportunidade);
+        edicao.setLojaAssociada(outraRevenda);
+        oportunidadeService.update(oportunidade.getId(), edicao);
+
+        var saida = oportunidadeService.buscarAlteracoesDaRevenda(userPrincipal, cursor, null);
+        assertEquals(List.of(), ids(saida));
+        assertEquals(List.of(oportunidade.getId()), saida.getExcluidas());
+        var entrada = oportunidadeService.buscarAlteracoesDaRevenda(userPrincipalOutraRevenda, cursorOutraRevenda, null);
+        assertEquals(List.of(oportunidade.getId()), ids(entrada));
+
+        edicao.setLojaAssociada(revenda);
+        oportunidadeService.update(oportunidade.getId(), edicao);
+
+        var retorno = oportunidadeService.buscarAlteracoesDaRevenda(userPrincipal, cursor, null);
+        assertEquals(List.of(oportunidade.getId()), ids(retorno));
+        assertEquals(List.of(), retorno.getExcluidas());
+        var nova = oportunidadeService.buscarAlteracoesDaRevenda(userPrincipalOutraRevenda, entrada.getCursor(), null);
+        assertEquals(List.of(), ids(nova));
+        assertEquals(List.of(oportunidade.getId()), nova.getExcluidas());
+    }
+
+    @Test
+    void paginarAlteracoes() {
+        var esperadas = new ArrayList<Long>();
+        for (int i = 0; i < 5; i++) {
+            esperadas.add(oportunidadeService.receberParaAtendimento(cadastro(null, null), userPrincipal).getId());
+        }
+        var excluida = esperadas.remove(1);
+        oportunidadeService.delete(excluida);
+        esperadas.add(oportunidadeService.receberParaAtendimento(cadastro(null, null), userPrincipal).getId());
+
+        var recebidas = new ArrayList<Long>();
+        var excluidas = new ArrayList<Long>();
+        String cursor = null;
+        AlteracoesDto pagina;
+        do {
+            pagina = oportunidadeService.buscarAlteracoesDaRevenda(userPrincipal, cursor, 2);
+            assertTrue(pagina.getAlteradas().size() + pagina.getExcluidas().size() <= 2);
+            recebidas.addAll(ids(pagina));
+            excluidas.addAll(pagina.getExcluidas());
+            cursor = pagina.getCursor();
+        } while (pagina.getTemMais());
+
+        recebidas.sort(null);
+        assertEquals(esperadas, recebidas);
+        assertEquals(List.of(excluida), excluidas);
+    }
+
+    @Test
+    void cursorInvalido() {
+        assertThrows(ValidacaoException.class, () -> oportunidadeService.buscarAlteracoesDaRevenda(userPrincipal, "invalido", null));
+        assertThrows(ValidacaoException.class, () -> oportunidadeService.buscarAlteracoesDaRevenda(
+                DadosTeste.assistenteDaRevenda(null), null, null));
+    }
+
+    private static List<Long> ids(AlteracoesDto alteracoes) {
+        return alteracoes.getAlteradas().stream().map(OportunidadeResumoDto::getId).toList();
+    }
+}